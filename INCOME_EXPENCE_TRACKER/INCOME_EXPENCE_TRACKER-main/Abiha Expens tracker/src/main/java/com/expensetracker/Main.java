@@ -1,5 +1,6 @@
 package com.expensetracker;
 
+import com.expensetracker.data.Repositories;
 import com.expensetracker.ui.DashboardController;
 import javafx.application.Application;
 import javafx.scene.Scene;
@@ -7,11 +8,12 @@ import javafx.scene.image.Image;
 import javafx.stage.Stage;
 
 public class Main extends Application {
+    private DashboardController dashboard;
     
     @Override
     public void start(Stage primaryStage) {
         try {
-            DashboardController dashboard = new DashboardController();
+            dashboard = new DashboardController();
             Scene scene = new Scene(dashboard.getView(), 1200, 800);
             
             // Load CSS stylesheet
@@ -29,6 +31,16 @@ public class Main extends Application {
         }
     }
     
+    @Override
+    public void stop() {
+        // The views stop listening before the repository they listen to goes away
+        if (dashboard != null) {
+            dashboard.dispose();
+        }
+        // Pending ledger writes are made durable before the JVM exits
+        Repositories.close();
+    }
+    
     public static void main(String[] args) {
         launch(args);
     }
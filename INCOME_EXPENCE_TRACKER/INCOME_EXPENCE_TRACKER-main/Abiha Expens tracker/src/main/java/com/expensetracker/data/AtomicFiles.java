@@ -0,0 +1,79 @@
+package com.expensetracker.data;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Crash-safe file replacement: the new content is written to a temp file, forced
+// to disk and then renamed over the target, so readers only ever see a complete
+// old or new generation. The previous generation is kept alongside as a backup, made
+// before the rename as a second name for the old file, so the target path names a
+// complete snapshot at every point. The directory is forced afterwards, so the new
+// names survive a power loss too.
+final class AtomicFiles {
+    interface ChannelWriter {
+        void write(FileChannel channel) throws IOException;
+    }
+    
+    private AtomicFiles() {
+    }
+    
+    static void write(Path target, Path backup, ChannelWriter writer) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writer.write(channel);
+            channel.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        
+        if (Files.exists(target)) {
+            keepBackup(target, backup);
+        }
+        move(temp, target);
+        forceDirectory(target.toAbsolutePath().getParent());
+    }
+    
+    // A hard link costs nothing and shares the old file's already-forced content; file
+    // systems without links get a forced copy instead
+    private static void keepBackup(Path target, Path backup) throws IOException {
+        Files.deleteIfExists(backup);
+        try {
+            Files.createLink(backup, target);
+            return;
+        } catch (UnsupportedOperationException | IOException e) {
+            // fall through to a copy
+        }
+        Files.copy(target, backup, StandardCopyOption.REPLACE_EXISTING);
+        try (FileChannel channel = FileChannel.open(backup, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+    
+    // Platforms that cannot open a directory as a channel (Windows) or force one make
+    // renames durable by other means, so failing here is not an error
+    private static void forceDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported here; the renames are still atomic, just not yet forced
+        }
+    }
+    
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
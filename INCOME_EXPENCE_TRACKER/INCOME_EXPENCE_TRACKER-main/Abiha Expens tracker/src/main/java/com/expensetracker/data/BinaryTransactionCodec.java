@@ -0,0 +1,172 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Money;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionId;
+import com.expensetracker.model.TransactionType;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Compact snapshot format. Layout (big-endian):
+//   header:  magic "ETXB", version, string count, row count
+//   strings: [length, UTF-8 bytes]*  (descriptions and non-UUID ids, deduplicated)
+//   rows:    [id msb, id lsb, flags, type ordinal, category ordinal, epoch day, amount, description index]*
+// Version 2 stores the amount as a long count of paise; version 1 files (double rupees) are still read.
+public final class BinaryTransactionCodec {
+    private static final int MAGIC = 0x45545842; // "ETXB"
+    private static final int VERSION = 2;
+    private static final int VERSION_DOUBLE_AMOUNTS = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int ROW_SIZE = 8 + 8 + 1 + 1 + 1 + 4 + 8 + 4;
+    private static final byte FLAG_STRING_ID = 1;
+    private static final int NO_STRING = -1;
+    
+    private BinaryTransactionCodec() {
+    }
+    
+    public static boolean isBinary(Path file) {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            while (header.hasRemaining() && channel.read(header) > 0) {
+                // keep reading until the magic is complete or the file ends
+            }
+            return header.position() == 4 && header.getInt(0) == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    public static void write(List<Transaction> transactions, FileChannel channel) throws IOException {
+        List<String> strings = new ArrayList<>();
+        Map<String, Integer> stringIndex = new HashMap<>();
+        int[] descriptionRefs = new int[transactions.size()];
+        int[] idRefs = new int[transactions.size()];
+        
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction t = transactions.get(i);
+            descriptionRefs[i] = intern(t.getDescription(), strings, stringIndex);
+            idRefs[i] = t.getTransactionId().isUuid() ? NO_STRING : intern(t.getId(), strings, stringIndex);
+        }
+        
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(strings.size()).putInt(transactions.size());
+        
+        for (String s : strings) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            ensureRemaining(buffer, channel, 4);
+            buffer.putInt(bytes.length);
+            if (bytes.length > buffer.capacity()) {
+                drain(buffer, channel);
+                ByteBuffer large = ByteBuffer.wrap(bytes);
+                while (large.hasRemaining()) {
+                    channel.write(large);
+                }
+            } else {
+                ensureRemaining(buffer, channel, bytes.length);
+                buffer.put(bytes);
+            }
+        }
+        
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction t = transactions.get(i);
+            ensureRemaining(buffer, channel, ROW_SIZE);
+            if (idRefs[i] == NO_STRING) {
+                TransactionId id = t.getTransactionId();
+                buffer.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).put((byte) 0);
+            } else {
+                buffer.putLong(0).putLong(idRefs[i]).put(FLAG_STRING_ID);
+            }
+            buffer.put((byte) t.getType().ordinal());
+            buffer.put((byte) t.getCategory().ordinal());
+            buffer.putInt(t.getEpochDay());
+            buffer.putLong(t.getAmountInPaise());
+            buffer.putInt(descriptionRefs[i]);
+        }
+        drain(buffer, channel);
+    }
+    
+    public static List<Transaction> read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 16 || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a binary transaction file: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION && version != VERSION_DOUBLE_AMOUNTS) {
+                throw new IOException("Unsupported binary transaction file version " + version);
+            }
+            int stringCount = buffer.getInt();
+            int rowCount = buffer.getInt();
+            
+            String[] strings = new String[stringCount];
+            for (int i = 0; i < stringCount; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            
+            TransactionType[] types = TransactionType.values();
+            Category[] categories = Category.values();
+            List<Transaction> transactions = new ArrayList<>(rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                long msb = buffer.getLong();
+                long lsb = buffer.getLong();
+                byte flags = buffer.get();
+                TransactionId id = (flags & FLAG_STRING_ID) != 0 ? TransactionId.of(strings[(int) lsb]) : TransactionId.of(msb, lsb);
+                TransactionType type = types[buffer.get()];
+                Category category = categories[buffer.get()];
+                LocalDate date = LocalDate.ofEpochDay(buffer.getInt());
+                long amountInPaise = version == VERSION ? buffer.getLong() : Money.fromDouble(buffer.getDouble());
+                int description = buffer.getInt();
+                Transaction transaction = new Transaction(id, type, category, 0,
+                        description == NO_STRING ? null : strings[description], date);
+                transaction.setAmountInPaise(amountInPaise);
+                transactions.add(transaction);
+            }
+            return transactions;
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new IOException("Truncated binary transaction file: " + file, e);
+        }
+    }
+    
+    private static int intern(String value, List<String> strings, Map<String, Integer> index) {
+        if (value == null) {
+            return NO_STRING;
+        }
+        return index.computeIfAbsent(value, v -> {
+            strings.add(v);
+            return strings.size() - 1;
+        });
+    }
+    
+    static void ensureRemaining(ByteBuffer buffer, FileChannel channel, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain(buffer, channel);
+        }
+    }
+    
+    static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,238 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.CategoryTotals;
+import com.expensetracker.model.Money;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+// Read-mostly analytics copy of the ledger. Rows are sorted by date and stored as
+// fixed-width primitive columns in a memory-mapped file, so range aggregations are a
+// binary search plus a tight scan that never materializes Transaction objects.
+// Descriptions live in a side file and are only decoded on request.
+//
+// ledger.columns:      magic, version, rows, then amount[rows] (long paise), epochDay[rows] (int),
+//                      type[rows] (byte), category[rows] (byte)
+// ledger.descriptions: rows, offset[rows + 1] (int), UTF-8 bytes
+public class ColumnarLedger {
+    public static final String COLUMNS_FILE = "ledger.columns";
+    public static final String DESCRIPTIONS_FILE = "ledger.descriptions";
+    
+    private static final int MAGIC = 0x4554434C; // "ETCL"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 12;
+    private static final int ROW_SIZE = Long.BYTES + Integer.BYTES + 2;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final int rows;
+    private final MappedByteBuffer columns;
+    private final MappedByteBuffer descriptions;
+    private final int amountOffset;
+    private final int epochDayOffset;
+    private final int typeOffset;
+    private final int categoryOffset;
+    
+    private ColumnarLedger(int rows, MappedByteBuffer columns, MappedByteBuffer descriptions) {
+        this.rows = rows;
+        this.columns = columns;
+        this.descriptions = descriptions;
+        this.amountOffset = HEADER_SIZE;
+        this.epochDayOffset = amountOffset + rows * Long.BYTES;
+        this.typeOffset = epochDayOffset + rows * Integer.BYTES;
+        this.categoryOffset = typeOffset + rows;
+    }
+    
+    public static void write(Path directory, List<Transaction> transactions) throws IOException {
+        Transaction[] sorted = transactions.toArray(new Transaction[0]);
+        Arrays.sort(sorted, Comparator.comparingInt(Transaction::getEpochDay));
+        int rows = sorted.length;
+        
+        AtomicFiles.write(directory.resolve(COLUMNS_FILE), directory.resolve(COLUMNS_FILE + ".bak"), channel -> {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(rows);
+            for (Transaction t : sorted) {
+                BinaryTransactionCodec.ensureRemaining(buffer, channel, Long.BYTES);
+                buffer.putLong(t.getAmountInPaise());
+            }
+            for (Transaction t : sorted) {
+                BinaryTransactionCodec.ensureRemaining(buffer, channel, Integer.BYTES);
+                buffer.putInt(t.getEpochDay());
+            }
+            for (Transaction t : sorted) {
+                BinaryTransactionCodec.ensureRemaining(buffer, channel, 1);
+                buffer.put((byte) t.getType().ordinal());
+            }
+            for (Transaction t : sorted) {
+                BinaryTransactionCodec.ensureRemaining(buffer, channel, 1);
+                buffer.put((byte) t.getCategory().ordinal());
+            }
+            BinaryTransactionCodec.drain(buffer, channel);
+        });
+        
+        AtomicFiles.write(directory.resolve(DESCRIPTIONS_FILE), directory.resolve(DESCRIPTIONS_FILE + ".bak"), channel -> {
+            byte[][] encoded = new byte[rows][];
+            for (int i = 0; i < rows; i++) {
+                String description = sorted[i].getDescription();
+                encoded[i] = description == null ? new byte[0] : description.getBytes(StandardCharsets.UTF_8);
+            }
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.putInt(rows);
+            int offset = 0;
+            for (int i = 0; i <= rows; i++) {
+                BinaryTransactionCodec.ensureRemaining(buffer, channel, Integer.BYTES);
+                buffer.putInt(offset);
+                if (i < rows) {
+                    offset += encoded[i].length;
+                }
+            }
+            BinaryTransactionCodec.drain(buffer, channel);
+            for (byte[] bytes : encoded) {
+                ByteBuffer blob = ByteBuffer.wrap(bytes);
+                while (blob.hasRemaining()) {
+                    channel.write(blob);
+                }
+            }
+        });
+    }
+    
+    // Checks both files against the row count in the header before mapping them, so a
+    // truncated or mismatched pair is reported here rather than as a read past the end later
+    public static ColumnarLedger open(Path directory) throws IOException {
+        Path columnsFile = directory.resolve(COLUMNS_FILE);
+        MappedByteBuffer columns = map(columnsFile);
+        if (columns.capacity() < HEADER_SIZE || columns.getInt(0) != MAGIC || columns.getInt(4) != VERSION) {
+            throw new IOException("Not a columnar ledger: " + columnsFile);
+        }
+        int rows = columns.getInt(8);
+        long expected = HEADER_SIZE + (long) rows * ROW_SIZE;
+        if (rows < 0 || columns.capacity() != expected) {
+            throw new IOException("Columnar ledger " + columnsFile + " is " + columns.capacity()
+                    + " bytes, expected " + expected + " for " + rows + " rows");
+        }
+        
+        Path descriptionsFile = directory.resolve(DESCRIPTIONS_FILE);
+        MappedByteBuffer descriptions = map(descriptionsFile);
+        long table = Integer.BYTES + (rows + 1L) * Integer.BYTES;
+        if (descriptions.capacity() < table || descriptions.getInt(0) != rows) {
+            throw new IOException("Columnar ledger files are out of step in " + directory);
+        }
+        if (descriptions.getInt(Integer.BYTES) != 0
+                || descriptions.getInt((int) table - Integer.BYTES) != descriptions.capacity() - table) {
+            throw new IOException("Description offsets in " + descriptionsFile + " do not match its size");
+        }
+        return new ColumnarLedger(rows, columns, descriptions);
+    }
+    
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+    
+    public int size() {
+        return rows;
+    }
+    
+    public long getAmountInPaise(int row) {
+        return columns.getLong(amountOffset + row * Long.BYTES);
+    }
+    
+    public double getAmount(int row) {
+        return Money.toDouble(getAmountInPaise(row));
+    }
+    
+    public LocalDate getDate(int row) {
+        return LocalDate.ofEpochDay(epochDay(row));
+    }
+    
+    public TransactionType getType(int row) {
+        return TransactionType.values()[columns.get(typeOffset + row)];
+    }
+    
+    public Category getCategory(int row) {
+        return Category.values()[columns.get(categoryOffset + row)];
+    }
+    
+    public String getDescription(int row) {
+        int start = descriptions.getInt(Integer.BYTES + row * Integer.BYTES);
+        int end = descriptions.getInt(Integer.BYTES + (row + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        ByteBuffer blob = descriptions.duplicate();
+        blob.position(Integer.BYTES + (rows + 1) * Integer.BYTES + start);
+        blob.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    // Total in paise
+    public long sum(TransactionType type, LocalDate start, LocalDate end) {
+        byte typeOrdinal = (byte) type.ordinal();
+        int to = upperBound(end.toEpochDay());
+        long total = 0;
+        for (int row = lowerBound(start.toEpochDay()); row < to; row++) {
+            if (columns.get(typeOffset + row) == typeOrdinal) {
+                total += getAmountInPaise(row);
+            }
+        }
+        return total;
+    }
+    
+    public CategoryTotals sumByCategory(TransactionType type, LocalDate start, LocalDate end) {
+        Category[] categories = Category.values();
+        CategoryTotals totals = new CategoryTotals();
+        byte typeOrdinal = (byte) type.ordinal();
+        int to = upperBound(end.toEpochDay());
+        for (int row = lowerBound(start.toEpochDay()); row < to; row++) {
+            if (columns.get(typeOffset + row) == typeOrdinal) {
+                totals.add(categories[columns.get(categoryOffset + row)], getAmountInPaise(row));
+            }
+        }
+        return totals;
+    }
+    
+    private int epochDay(int row) {
+        return columns.getInt(epochDayOffset + row * Integer.BYTES);
+    }
+    
+    // First row whose date is on or after the given day
+    private int lowerBound(long day) {
+        int low = 0;
+        int high = rows;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDay(mid) < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    // First row whose date is after the given day
+    private int upperBound(long day) {
+        int low = 0;
+        int high = rows;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDay(mid) <= day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -1,131 +1,743 @@
 package com.expensetracker.data;
 
+import com.expensetracker.model.Category;
+import com.expensetracker.model.CategoryTotals;
 import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionId;
 import com.expensetracker.model.TransactionType;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
 import java.io.*;
-import java.lang.reflect.Type;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
-public class DataManager {
+public class DataManager implements TransactionRepository {
     private static final String DATA_DIR = "data";
-    private static final String DATA_FILE = "transactions.json";
-    private static DataManager instance;
+    private static final String JOURNAL_FILE = "transactions.journal";
+    private static final int COMPACTION_THRESHOLD = 1000;
+    // Write-behind tuning: how long a burst of changes may wait, and how many go in one write
+    private static final String FLUSH_DELAY_PROPERTY = "expensetracker.flushDelayMs";
+    private static final String FLUSH_BATCH_PROPERTY = "expensetracker.flushBatchSize";
+    private static final long DEFAULT_FLUSH_DELAY_MILLIS = 200;
+    private static final int DEFAULT_FLUSH_BATCH_SIZE = 500;
     
-    private List<Transaction> transactions;
-    private Gson gson;
+    // Writers are serialized by the write lock. Readers share the read lock, and the
+    // scalar totals are read optimistically so they never wait on a writer at all.
+    private final StampedLock lock = new StampedLock();
+    // Keyed by id for O(1) lookup; insertion order is kept and removals never shift other rows
+    private LinkedHashMap<TransactionId, Transaction> transactions;
+    // Derived state: a date-ordered index for range queries and running totals.
+    // indexedRows remembers what each row contributed, since callers may mutate a
+    // Transaction before passing it to update.
+    private NavigableMap<LocalDate, List<Transaction>> byDate;
+    private Map<TransactionId, IndexedRow> indexedRows;
+    private long totalIncome;
+    private long totalExpense;
+    private LedgerRollup rollup;
+    private SearchIndex searchIndex;
+    private final DescriptionPool descriptions = new DescriptionPool(DescriptionPool.DEFAULT_MAX_ENTRIES);
+    private final Path dataDir;
+    private StorageFormat storageFormat;
+    private TransactionAdapter transactionAdapter;
+    private TransactionJournal journal;
+    private PersistenceWorker persistence;
+    // Bumped on every change so the columnar copy knows whether it is current
+    private long version;
+    // Guards columnarVersion and the columnar files, which openColumnarLedger rewrites
+    private final Object columnarLock = new Object();
+    private long columnarVersion = -1;
+    // Set under the write lock by close(); mutators check it before touching anything
+    private boolean closed;
+    // Built lazily by readers; several may race to build the same version, which is harmless
+    private volatile LedgerSnapshot snapshot;
+    // Changes are queued in commit order under the write lock and handed to subscribers once
+    // it is released, so a slow subscriber can hold up a writer but never a reader
+    private final SubmissionPublisher<TransactionChange> changes = new SubmissionPublisher<>();
+    private final Queue<TransactionChange> pendingChanges = new ConcurrentLinkedQueue<>();
     
     private DataManager() {
-        this.gson = new GsonBuilder()
-                .setPrettyPrinting()
+        this(Paths.get(DATA_DIR));
+    }
+    
+    // A ledger kept in the given directory instead of the application's; for tests
+    DataManager(Path dataDir) {
+        this.dataDir = dataDir;
+        this.storageFormat = StorageFormat.fromSystemProperty();
+        this.transactionAdapter = new TransactionAdapter();
+        Gson journalGson = new GsonBuilder()
+                .registerTypeAdapter(Transaction.class, transactionAdapter)
                 .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
                 .create();
-        this.transactions = new ArrayList<>();
+        this.journal = new TransactionJournal(dataDir.resolve(JOURNAL_FILE), journalGson);
+        this.transactions = new LinkedHashMap<>();
+        this.byDate = new TreeMap<>();
+        this.indexedRows = new HashMap<>();
+        this.rollup = new LedgerRollup();
+        this.searchIndex = new SearchIndex();
         initializeDataDirectory();
         loadTransactions();
+        this.persistence = new PersistenceWorker(new JournalSink(),
+                Long.getLong(FLUSH_DELAY_PROPERTY, DEFAULT_FLUSH_DELAY_MILLIS),
+                Integer.getInteger(FLUSH_BATCH_PROPERTY, DEFAULT_FLUSH_BATCH_SIZE));
+    }
+    
+    // Lazily created on first use; class initialization makes this safe across threads
+    private static final class Holder {
+        static final DataManager INSTANCE = new DataManager();
     }
     
     public static DataManager getInstance() {
-        if (instance == null) {
-            instance = new DataManager();
-        }
-        return instance;
+        return Holder.INSTANCE;
+    }
+    
+    // A separate ledger over the application's data directory, for reading it once without
+    // creating the shared instance; the caller must close it
+    static DataManager openUnshared() {
+        return new DataManager(Paths.get(DATA_DIR));
     }
     
     private void initializeDataDirectory() {
-        Path dataPath = Paths.get(DATA_DIR);
-        if (!Files.exists(dataPath)) {
+        if (!Files.exists(dataDir)) {
             try {
-                Files.createDirectories(dataPath);
+                Files.createDirectories(dataDir);
             } catch (IOException e) {
                 System.err.println("Error creating data directory: " + e.getMessage());
             }
         }
     }
     
+    @Override
     public void addTransaction(Transaction transaction) {
-        transactions.add(transaction);
-        saveTransactions();
+        addTransactions(Collections.singletonList(transaction));
     }
     
+    @Override
     public void updateTransaction(Transaction transaction) {
-        for (int i = 0; i < transactions.size(); i++) {
-            if (transactions.get(i).getId().equals(transaction.getId())) {
-                transactions.set(i, transaction);
-                saveTransactions();
-                break;
+        updateTransactions(Collections.singletonList(transaction));
+    }
+    
+    @Override
+    public void deleteTransaction(String id) {
+        deleteTransactions(Collections.singletonList(id));
+    }
+    
+    // The batch mutators apply every row under one write lock and hand the whole batch
+    // to the persistence thread as a single append. Rows are checked before the lock is
+    // taken, so a bad row rejects the whole batch and leaves the map and indexes untouched.
+    // The ledger stores its own copy of each row, so a caller editing the instance it passed
+    // in can never change a stored row behind the indexes, or while a snapshot of it is
+    // being written on the persistence thread.
+    @Override
+    public void addTransactions(Collection<Transaction> batch) {
+        validate(batch);
+        long stamp = lock.writeLock();
+        try {
+            checkOpen();
+            boolean publish = changes.hasSubscribers();
+            List<String> records = new ArrayList<>(batch.size());
+            for (Transaction added : batch) {
+                Transaction transaction = own(added);
+                TransactionId id = transaction.getTransactionId();
+                IndexedRow before = transactions.put(id, transaction) != null ? unindex(id) : null;
+                IndexedRow after = index(transaction);
+                if (publish) {
+                    pendingChanges.add(before == null
+                            ? TransactionChange.added(after.toTransaction(id))
+                            : TransactionChange.updated(before.toTransaction(id), after.toTransaction(id)));
+                }
+                records.add(journal.encode(TransactionJournal.Operation.ADD, transaction));
             }
+            commit(records);
+        } finally {
+            lock.unlockWrite(stamp);
         }
+        publishChanges();
     }
     
-    public void deleteTransaction(String id) {
-        transactions.removeIf(t -> t.getId().equals(id));
-        saveTransactions();
+    @Override
+    public void updateTransactions(Collection<Transaction> batch) {
+        validate(batch);
+        long stamp = lock.writeLock();
+        try {
+            checkOpen();
+            boolean publish = changes.hasSubscribers();
+            List<String> records = new ArrayList<>(batch.size());
+            for (Transaction updated : batch) {
+                Transaction transaction = own(updated);
+                TransactionId id = transaction.getTransactionId();
+                if (transactions.replace(id, transaction) != null) {
+                    IndexedRow before = unindex(id);
+                    IndexedRow after = index(transaction);
+                    if (publish) {
+                        pendingChanges.add(TransactionChange.updated(before.toTransaction(id), after.toTransaction(id)));
+                    }
+                    records.add(journal.encode(TransactionJournal.Operation.UPDATE, transaction));
+                }
+            }
+            commit(records);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        publishChanges();
     }
     
+    @Override
+    public void deleteTransactions(Collection<String> ids) {
+        long stamp = lock.writeLock();
+        try {
+            checkOpen();
+            boolean publish = changes.hasSubscribers();
+            List<String> records = new ArrayList<>(ids.size());
+            for (String rawId : ids) {
+                TransactionId id = TransactionId.of(rawId);
+                Transaction existing = transactions.remove(id);
+                if (existing != null) {
+                    IndexedRow before = unindex(id);
+                    // Only dropped here: index() re-indexes updated rows in place, keeping their position
+                    searchIndex.remove(id);
+                    if (publish) {
+                        pendingChanges.add(TransactionChange.removed(before.toTransaction(id)));
+                    }
+                    records.add(journal.encode(TransactionJournal.Operation.DELETE, existing));
+                }
+            }
+            commit(records);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        publishChanges();
+    }
+    
+    // Returns a shared immutable snapshot; it is only rebuilt after the ledger changes
+    @Override
     public List<Transaction> getAllTransactions() {
-        return new ArrayList<>(transactions);
+        return snapshot();
     }
     
+    @Override
     public List<Transaction> getTransactionsByType(TransactionType type) {
-        return transactions.stream()
+        return readLocked(() -> transactions.values().stream()
                 .filter(t -> t.getType() == type)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
+    @Override
     public List<Transaction> getTransactionsByDateRange(LocalDate start, LocalDate end) {
-        return transactions.stream()
-                .filter(t -> !t.getDate().isBefore(start) && !t.getDate().isAfter(end))
-                .collect(Collectors.toList());
+        return readLocked(() -> {
+            List<Transaction> result = new ArrayList<>();
+            if (start.isAfter(end)) {
+                return result;
+            }
+            for (List<Transaction> day : byDate.subMap(start, true, end, true).values()) {
+                result.addAll(day);
+            }
+            return result;
+        });
+    }
+    
+    // Seeks the date index to the cursor's day and walks back from there, so a page costs
+    // its own rows plus the days it spans, however deep into the ledger it starts
+    @Override
+    public List<Transaction> getPage(TransactionType type, PageCursor after, int limit) {
+        return readLocked(() -> newestFirst(after == null ? byDate : byDate.headMap(after.getDate(), true),
+                type, after, limit));
+    }
+    
+    @Override
+    public List<Transaction> getRecent(int k, LocalDate start, LocalDate end) {
+        return readLocked(() -> start.isAfter(end)
+                ? new ArrayList<>()
+                : newestFirst(byDate.subMap(start, true, end, true), null, null, k));
+    }
+    
+    // One pass over the range through a k-slot min-heap, so only k rows are ever held
+    // and each costs O(log k); the result is never a sort of the whole range
+    @Override
+    public List<Transaction> getLargest(int k, TransactionType type, LocalDate start, LocalDate end) {
+        return readLocked(() -> {
+            List<Transaction> result = new ArrayList<>();
+            if (k <= 0 || start.isAfter(end)) {
+                return result;
+            }
+            PriorityQueue<Transaction> heap = new PriorityQueue<>(k, PageCursor.LARGEST_FIRST.reversed());
+            for (List<Transaction> day : byDate.subMap(start, true, end, true).values()) {
+                for (Transaction t : day) {
+                    if (type != null && t.getType() != type) {
+                        continue;
+                    }
+                    if (heap.size() < k) {
+                        heap.add(t);
+                    } else if (PageCursor.LARGEST_FIRST.compare(t, heap.peek()) < 0) {
+                        heap.poll();
+                        heap.add(t);
+                    }
+                }
+            }
+            result.addAll(heap);
+            result.sort(PageCursor.LARGEST_FIRST);
+            return result;
+        });
+    }
+    
+    // Up to limit rows of the given days, newest day first, skipping rows up to the cursor.
+    // Days are kept in insertion order; only the few rows of each visited day are sorted.
+    private static List<Transaction> newestFirst(NavigableMap<LocalDate, List<Transaction>> days,
+            TransactionType type, PageCursor after, int limit) {
+        List<Transaction> page = new ArrayList<>();
+        for (Map.Entry<LocalDate, List<Transaction>> day : days.descendingMap().entrySet()) {
+            if (page.size() >= limit) {
+                break;
+            }
+            List<Transaction> rows = new ArrayList<>(day.getValue());
+            rows.sort(Comparator.comparing(Transaction::getTransactionId).reversed());
+            for (Transaction t : rows) {
+                if (page.size() >= limit) {
+                    break;
+                }
+                if ((after == null || after.precedes(day.getKey(), t.getTransactionId()))
+                        && (type == null || t.getType() == type)) {
+                    page.add(t);
+                }
+            }
+        }
+        return page;
+    }
+    
+    // Answered from the inverted index; a blank query returns every transaction
+    @Override
+    public List<Transaction> search(String query) {
+        List<String> tokens = SearchIndex.tokenize(query);
+        if (tokens.isEmpty()) {
+            return snapshot();
+        }
+        return readLocked(() -> searchIndex.search(tokens));
+    }
+    
+    @Override
+    public long getTotalIncome() {
+        return optimisticRead(() -> totalIncome);
+    }
+    
+    @Override
+    public long getTotalExpense() {
+        return optimisticRead(() -> totalExpense);
+    }
+    
+    @Override
+    public long getBalance() {
+        return optimisticRead(() -> totalIncome - totalExpense);
+    }
+    
+    @Override
+    public long getTotal(TransactionType type, LocalDate start, LocalDate end) {
+        return readLocked(() -> rollup.total(type, start, end));
+    }
+    
+    @Override
+    public int getTransactionCount(LocalDate start, LocalDate end) {
+        return readLocked(() -> rollup.count(start, end));
+    }
+    
+    @Override
+    public CategoryTotals getCategoryTotals(TransactionType type, LocalDate start, LocalDate end) {
+        return readLocked(() -> rollup.categoryTotals(type, start, end));
+    }
+    
+    @Override
+    public long[] getDailyTotals(TransactionType type, LocalDate start, LocalDate end) {
+        return readLocked(() -> rollup.dailyTotals(type, start, end));
+    }
+    
+    @Override
+    public long[] getMonthlyTotals(TransactionType type, YearMonth first, YearMonth last) {
+        return readLocked(() -> rollup.monthlyTotals(type, first, last));
+    }
+    
+    @Override
+    public Flow.Publisher<TransactionChange> changes() {
+        return changes;
+    }
+    
+    @Override
+    public long getVersion() {
+        return optimisticRead(() -> version);
+    }
+    
+    private LedgerSnapshot snapshot() {
+        LedgerSnapshot current = snapshot;
+        if (current != null && current.getVersion() == optimisticRead(() -> version)) {
+            return current;
+        }
+        return readLocked(() -> {
+            LedgerSnapshot latest = snapshot;
+            if (latest == null || latest.getVersion() != version) {
+                latest = new LedgerSnapshot(transactions.values().toArray(new Transaction[0]), version);
+                snapshot = latest;
+            }
+            return latest;
+        });
+    }
+    
+    // Reads a few fields without taking the lock and retries under the read lock if a
+    // writer got in between. Only for reads that cannot misbehave on torn state, since
+    // the result is thrown away but the read itself still runs.
+    private <T> T optimisticRead(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            T result = reader.get();
+            if (lock.validate(stamp)) {
+                return result;
+            }
+        }
+        return readLocked(reader);
     }
     
-    public double getTotalIncome() {
-        return transactions.stream()
-                .filter(t -> t.getType() == TransactionType.INCOME)
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+    // Map and tree traversals are not safe against concurrent structural changes, so
+    // they hold the shared read lock; other readers still proceed in parallel.
+    private <T> T readLocked(Supplier<T> reader) {
+        long stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
     
-    public double getTotalExpense() {
-        return transactions.stream()
-                .filter(t -> t.getType() == TransactionType.EXPENSE)
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+    // Maps a primitive-column copy of the ledger for large read-only aggregations.
+    // The copy is only rewritten when the ledger changed since it was last built, from the
+    // shared snapshot, so the ledger lock is not held while the files are written.
+    public ColumnarLedger openColumnarLedger() throws IOException {
+        synchronized (columnarLock) {
+            LedgerSnapshot rows = snapshot();
+            if (rows.getVersion() != columnarVersion || !Files.exists(dataDir.resolve(ColumnarLedger.COLUMNS_FILE))
+                    || !Files.exists(dataDir.resolve(ColumnarLedger.DESCRIPTIONS_FILE))) {
+                ColumnarLedger.write(dataDir, rows);
+                columnarVersion = rows.getVersion();
+            }
+            return ColumnarLedger.open(dataDir);
+        }
     }
     
-    public double getBalance() {
-        return getTotalIncome() - getTotalExpense();
+    private IndexedRow index(Transaction transaction) {
+        IndexedRow row = new IndexedRow(transaction);
+        indexedRows.put(transaction.getTransactionId(), row);
+        LocalDate date = transaction.getDate();
+        byDate.computeIfAbsent(date, d -> new ArrayList<>()).add(transaction);
+        if (row.type == TransactionType.INCOME) {
+            totalIncome += row.amountInPaise;
+        } else if (row.type == TransactionType.EXPENSE) {
+            totalExpense += row.amountInPaise;
+        }
+        if (row.type != null && row.category != null) {
+            rollup.add(date, row.type, row.category, row.amountInPaise);
+        }
+        searchIndex.put(transaction);
+        return row;
     }
     
-    private void saveTransactions() {
-        try (Writer writer = new FileWriter(Paths.get(DATA_DIR, DATA_FILE).toFile())) {
-            gson.toJson(transactions, writer);
+    // Returns what the row had contributed, or null if it was not indexed
+    private IndexedRow unindex(TransactionId id) {
+        IndexedRow row = indexedRows.remove(id);
+        if (row == null) {
+            return null;
+        }
+        LocalDate date = LocalDate.ofEpochDay(row.epochDay);
+        List<Transaction> day = byDate.get(date);
+        day.removeIf(t -> t.getTransactionId().equals(id));
+        if (day.isEmpty()) {
+            byDate.remove(date);
+        }
+        if (row.type == TransactionType.INCOME) {
+            totalIncome -= row.amountInPaise;
+        } else if (row.type == TransactionType.EXPENSE) {
+            totalExpense -= row.amountInPaise;
+        }
+        if (row.type != null && row.category != null) {
+            rollup.remove(date, row.type, row.category, row.amountInPaise);
+        }
+        return row;
+    }
+    
+    // Called after the write lock is released. Whichever writer gets here first publishes
+    // every queued change, its own and those of writers that committed after it, in order.
+    private void publishChanges() {
+        synchronized (pendingChanges) {
+            TransactionChange change;
+            while ((change = pendingChanges.poll()) != null) {
+                // Closed after this writer committed; there is nobody left to tell
+                if (!changes.isClosed()) {
+                    changes.submit(change);
+                }
+            }
+        }
+    }
+    
+    // The ledger's own copy of a row passed in, sharing its description with equal rows
+    private Transaction own(Transaction transaction) {
+        Transaction copy = TransactionChange.copyOf(transaction);
+        copy.setDescription(descriptions.share(copy.getDescription()));
+        return copy;
+    }
+    
+    // Everything index() relies on; the amount and description may be anything
+    private static void validate(Collection<Transaction> batch) {
+        for (Transaction transaction : batch) {
+            if (transaction.getTransactionId() == null || transaction.getDate() == null
+                    || transaction.getType() == null || transaction.getCategory() == null) {
+                throw new IllegalArgumentException("Transaction needs an id, date, type and category");
+            }
+        }
+    }
+    
+    // Runs under the write lock
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Ledger is closed");
+        }
+    }
+    
+    // Runs under the write lock. Records are encoded by the caller so they match the state
+    // just applied, and the disk write happens later on the persistence thread.
+    private void commit(List<String> records) {
+        if (!records.isEmpty()) {
+            version++;
+            persistence.submitAll(records);
+        }
+    }
+    
+    // Blocks until every change made so far is in the journal or a snapshot on disk
+    @Override
+    public void flush() {
+        persistence.flush();
+    }
+    
+    // Flushes pending changes and stops the persistence thread; called on application shutdown.
+    // Later mutations are rejected before they change anything, rather than being applied in
+    // memory and then failing to reach the journal or the subscribers.
+    @Override
+    public void close() {
+        long stamp = lock.writeLock();
+        try {
+            closed = true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        persistence.close();
+        // Under the same lock as publishChanges, so a submit never races the close
+        synchronized (pendingChanges) {
+            changes.close();
+        }
+    }
+    
+    // Folds the journal into a fresh snapshot. The journal is only reset once the
+    // snapshot has been written, so a failure here never loses acknowledged changes.
+    // Records still queued when the journal is reset are replayed harmlessly on top,
+    // since the snapshot already contains them.
+    // Returns whether the snapshot was written, which makes every change so far durable
+    private boolean compact() {
+        if (!saveTransactions(snapshot())) {
+            return false;
+        }
+        try {
+            journal.reset();
+        } catch (IOException e) {
+            System.err.println("Error resetting journal: " + e.getMessage());
+        }
+        return true;
+    }
+    
+    private boolean saveTransactions(List<Transaction> rows) {
+        try {
+            Path snapshot = dataDir.resolve(storageFormat.getFileName());
+            Path backup = dataDir.resolve(storageFormat.getBackupFileName());
+            if (storageFormat == StorageFormat.BINARY) {
+                AtomicFiles.write(snapshot, backup, channel -> BinaryTransactionCodec.write(rows, channel));
+                return true;
+            }
+            AtomicFiles.write(snapshot, backup, channel -> {
+                JsonWriter writer = new JsonWriter(new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8)));
+                writer.setIndent("  ");
+                writer.beginArray();
+                for (Transaction t : rows) {
+                    transactionAdapter.write(writer, t);
+                }
+                writer.endArray();
+                writer.flush();
+            });
+            return true;
         } catch (IOException e) {
             System.err.println("Error saving transactions: " + e.getMessage());
+            return false;
         }
     }
     
     private void loadTransactions() {
-        File dataFile = Paths.get(DATA_DIR, DATA_FILE).toFile();
-        if (dataFile.exists()) {
-            try (Reader reader = new FileReader(dataFile)) {
-                Type listType = new TypeToken<ArrayList<Transaction>>(){}.getType();
-                List<Transaction> loaded = gson.fromJson(reader, listType);
-                if (loaded != null) {
-                    transactions = loaded;
+        Path snapshot = dataDir.resolve(storageFormat.getFileName());
+        Path migrateFrom = null;
+        if (!Files.exists(snapshot)) {
+            // First run with a different storage format: pick up the other format's snapshot once
+            for (StorageFormat other : StorageFormat.values()) {
+                Path candidate = dataDir.resolve(other.getFileName());
+                if (other != storageFormat && loadSnapshot(candidate)) {
+                    migrateFrom = candidate;
+                    break;
                 }
+            }
+        }
+        if (migrateFrom == null && !loadSnapshot(snapshot)) {
+            // The current generation is missing or damaged; recover from the previous one
+            loadSnapshot(dataDir.resolve(storageFormat.getBackupFileName()));
+        }
+        
+        try {
+            journal.replay(transactions);
+        } catch (IOException e) {
+            System.err.println("Error replaying journal: " + e.getMessage());
+        }
+        for (Transaction t : transactions.values()) {
+            t.setDescription(descriptions.share(t.getDescription()));
+            index(t);
+        }
+        
+        if (migrateFrom != null) {
+            migrateSnapshot(migrateFrom);
+        } else if (journal.size() >= COMPACTION_THRESHOLD) {
+            compact();
+        }
+    }
+    
+    private void setTransactions(List<Transaction> loaded) {
+        transactions = new LinkedHashMap<>();
+        for (Transaction t : loaded) {
+            transactions.put(t.getTransactionId(), t);
+        }
+    }
+    
+    private void migrateSnapshot(Path source) {
+        if (!saveTransactions(new ArrayList<>(transactions.values()))) {
+            return;
+        }
+        try {
+            journal.reset();
+            // Park the old file so the next format switch migrates from fresh data, not this copy
+            Files.move(source, source.resolveSibling(source.getFileName() + ".migrated"),
+                    StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Migrated " + transactions.size() + " transactions from " + source
+                    + " to " + storageFormat.getFileName());
+        } catch (IOException e) {
+            System.err.println("Error finishing migration from " + source + ": " + e.getMessage());
+        }
+    }
+    
+    private boolean loadSnapshot(Path snapshot) {
+        if (!Files.exists(snapshot)) {
+            return false;
+        }
+        // Detect the format from the file itself so either kind can always be read
+        if (BinaryTransactionCodec.isBinary(snapshot)) {
+            try {
+                setTransactions(BinaryTransactionCodec.read(snapshot));
+                return true;
             } catch (IOException e) {
-                System.err.println("Error loading transactions: " + e.getMessage());
+                System.err.println("Error loading transactions from " + snapshot + ": " + e.getMessage());
+                return false;
+            }
+        }
+        // Stream the ledger token by token rather than building a whole JSON tree
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(snapshot, StandardCharsets.UTF_8))) {
+            List<Transaction> loaded = new ArrayList<>();
+            if (reader.peek() != JsonToken.END_DOCUMENT && reader.peek() != JsonToken.NULL) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    Transaction t = transactionAdapter.read(reader);
+                    if (t != null) {
+                        loaded.add(t);
+                    }
+                }
+                reader.endArray();
+            }
+            setTransactions(loaded);
+            return true;
+        } catch (IOException | JsonParseException | IllegalStateException | IllegalArgumentException e) {
+            System.err.println("Error loading transactions from " + snapshot + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
+    // Journal writes and compaction, run on the persistence thread only
+    private final class JournalSink implements PersistenceWorker.Sink {
+        @Override
+        public void write(List<String> records) throws IOException {
+            journal.appendAll(records);
+        }
+        
+        @Override
+        public void afterWrite() {
+            if (journal.size() >= COMPACTION_THRESHOLD) {
+                compact();
             }
         }
+        
+        @Override
+        public boolean writeFailed(IOException e) {
+            // Fall back to a full snapshot so the changes are not lost
+            System.err.println("Error writing journal: " + e.getMessage());
+            return compact();
+        }
+    }
+    
+    // What a row contributed to the derived state when it was indexed, kept in
+    // primitive form since there is one of these per transaction
+    private static final class IndexedRow {
+        final int epochDay;
+        final TransactionType type;
+        final Category category;
+        final long amountInPaise;
+        // Interned, so this adds a reference rather than a copy of the text
+        final String description;
+        
+        IndexedRow(Transaction transaction) {
+            this.epochDay = transaction.getEpochDay();
+            this.type = transaction.getType();
+            this.category = transaction.getCategory();
+            this.amountInPaise = transaction.getAmountInPaise();
+            this.description = transaction.getDescription();
+        }
+        
+        // The row as it was indexed, for change events
+        Transaction toTransaction(TransactionId id) {
+            Transaction transaction = new Transaction(id, type, category, 0, description, LocalDate.ofEpochDay(epochDay));
+            transaction.setAmountInPaise(amountInPaise);
+            return transaction;
+        }
     }
 }
@@ -0,0 +1,38 @@
+package com.expensetracker.data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Ledger-scoped dedup of description text, so rows repeating "Salary" or "Rent" share one
+// String instead of each holding the copy its loader or form created. Bounded: past
+// maxEntries distinct texts the least recently seen one is forgotten, so arbitrary user text
+// never accumulates the way it would in the JVM string table. A forgotten text stays alive
+// only through the rows using it. Not thread-safe; DataManager calls it while loading and
+// under its write lock.
+final class DescriptionPool {
+    static final int DEFAULT_MAX_ENTRIES = 8192;
+    
+    private final Map<String, String> texts;
+    
+    DescriptionPool(int maxEntries) {
+        this.texts = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+    
+    // The pooled instance equal to text, pooling text itself if none is held
+    String share(String text) {
+        if (text == null) {
+            return null;
+        }
+        String shared = texts.putIfAbsent(text, text);
+        return shared == null ? text : shared;
+    }
+    
+    int size() {
+        return texts.size();
+    }
+}
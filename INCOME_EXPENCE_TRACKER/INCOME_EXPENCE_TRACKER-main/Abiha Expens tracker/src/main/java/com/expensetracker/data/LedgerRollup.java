@@ -0,0 +1,149 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.CategoryTotals;
+import com.expensetracker.model.TransactionType;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// Pre-aggregated totals keyed by (day or month, type, category), maintained incrementally
+// as rows are added and removed. Range queries visit whole-month buckets for the interior
+// of the range and day buckets only for the partial months at either end, so their cost
+// depends on the length of the range, not on how many transactions it contains. Amounts
+// are paise, so totals are exact and summing them allocates nothing.
+class LedgerRollup {
+    private static final int CATEGORIES = Category.values().length;
+    private static final int CELLS = TransactionType.values().length * CATEGORIES;
+    
+    private final NavigableMap<LocalDate, Bucket> days = new TreeMap<>();
+    private final NavigableMap<YearMonth, Bucket> months = new TreeMap<>();
+    
+    void add(LocalDate date, TransactionType type, Category category, long amount) {
+        int cell = cell(type, category);
+        days.computeIfAbsent(date, d -> new Bucket()).add(cell, amount, 1);
+        months.computeIfAbsent(YearMonth.from(date), m -> new Bucket()).add(cell, amount, 1);
+    }
+    
+    void remove(LocalDate date, TransactionType type, Category category, long amount) {
+        int cell = cell(type, category);
+        Bucket day = days.get(date);
+        if (day.add(cell, -amount, -1)) {
+            days.remove(date);
+        }
+        YearMonth month = YearMonth.from(date);
+        if (months.get(month).add(cell, -amount, -1)) {
+            months.remove(month);
+        }
+    }
+    
+    void clear() {
+        days.clear();
+        months.clear();
+    }
+    
+    long total(TransactionType type, LocalDate start, LocalDate end) {
+        return collect(start, end).total(type);
+    }
+    
+    int count(LocalDate start, LocalDate end) {
+        Bucket range = collect(start, end);
+        int total = 0;
+        for (int count : range.counts) {
+            total += count;
+        }
+        return total;
+    }
+    
+    CategoryTotals categoryTotals(TransactionType type, LocalDate start, LocalDate end) {
+        Bucket range = collect(start, end);
+        CategoryTotals totals = new CategoryTotals();
+        for (Category category : Category.values()) {
+            int cell = cell(type, category);
+            if (range.counts[cell] > 0) {
+                totals.add(category, range.amounts[cell], range.counts[cell]);
+            }
+        }
+        return totals;
+    }
+    
+    // One entry per day from start to end inclusive
+    long[] dailyTotals(TransactionType type, LocalDate start, LocalDate end) {
+        long[] totals = new long[(int) (end.toEpochDay() - start.toEpochDay() + 1)];
+        for (Map.Entry<LocalDate, Bucket> entry : days.subMap(start, true, end, true).entrySet()) {
+            totals[(int) (entry.getKey().toEpochDay() - start.toEpochDay())] = entry.getValue().total(type);
+        }
+        return totals;
+    }
+    
+    // One entry per month from first to last inclusive
+    long[] monthlyTotals(TransactionType type, YearMonth first, YearMonth last) {
+        int size = (int) (last.getYear() * 12L + last.getMonthValue() - (first.getYear() * 12L + first.getMonthValue()) + 1);
+        long[] totals = new long[size];
+        for (Map.Entry<YearMonth, Bucket> entry : months.subMap(first, true, last, true).entrySet()) {
+            YearMonth month = entry.getKey();
+            int index = (int) (month.getYear() * 12L + month.getMonthValue() - (first.getYear() * 12L + first.getMonthValue()));
+            totals[index] = entry.getValue().total(type);
+        }
+        return totals;
+    }
+    
+    private Bucket collect(LocalDate start, LocalDate end) {
+        Bucket result = new Bucket();
+        if (start.isAfter(end)) {
+            return result;
+        }
+        
+        YearMonth firstFull = start.getDayOfMonth() == 1 ? YearMonth.from(start) : YearMonth.from(start).plusMonths(1);
+        YearMonth lastFull = end.equals(YearMonth.from(end).atEndOfMonth()) ? YearMonth.from(end) : YearMonth.from(end).minusMonths(1);
+        
+        if (firstFull.isAfter(lastFull)) {
+            days.subMap(start, true, end, true).values().forEach(result::merge);
+            return result;
+        }
+        days.subMap(start, true, firstFull.atDay(1), false).values().forEach(result::merge);
+        months.subMap(firstFull, true, lastFull, true).values().forEach(result::merge);
+        days.subMap(lastFull.atEndOfMonth(), false, end, true).values().forEach(result::merge);
+        return result;
+    }
+    
+    private static int cell(TransactionType type, Category category) {
+        return type.ordinal() * CATEGORIES + category.ordinal();
+    }
+    
+    private static final class Bucket {
+        final long[] amounts = new long[CELLS];
+        final int[] counts = new int[CELLS];
+        int rows;
+        
+        // Returns true once the bucket holds no rows and can be dropped
+        boolean add(int cell, long amount, int count) {
+            amounts[cell] += amount;
+            counts[cell] += count;
+            rows += count;
+            return rows == 0;
+        }
+        
+        void merge(Bucket other) {
+            for (int i = 0; i < CELLS; i++) {
+                if (other.counts[i] != 0) {
+                    amounts[i] += other.amounts[i];
+                    counts[i] += other.counts[i];
+                }
+            }
+            rows += other.rows;
+        }
+        
+        long total(TransactionType type) {
+            long total = 0;
+            int from = type.ordinal() * CATEGORIES;
+            for (int i = from; i < from + CATEGORIES; i++) {
+                total += amounts[i];
+            }
+            return total;
+        }
+    }
+}
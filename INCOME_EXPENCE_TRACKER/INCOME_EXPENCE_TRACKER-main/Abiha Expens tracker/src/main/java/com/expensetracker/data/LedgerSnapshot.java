@@ -0,0 +1,57 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.Transaction;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+// Array-backed view of the ledger at one version. DataManager builds it once per change and
+// hands the same instance to every reader until the next change, so repeated
+// getAllTransactions() calls cost nothing. The array is never written after construction,
+// and the rows are the ledger's own copies, which it replaces rather than edits; readers
+// must treat them as read-only too, since compaction writes them out without the lock.
+final class LedgerSnapshot extends AbstractList<Transaction> implements RandomAccess {
+    private final Transaction[] rows;
+    private final long version;
+    
+    LedgerSnapshot(Transaction[] rows, long version) {
+        this.rows = rows;
+        this.version = version;
+    }
+    
+    long getVersion() {
+        return version;
+    }
+    
+    @Override
+    public Transaction get(int index) {
+        return rows[index];
+    }
+    
+    @Override
+    public int size() {
+        return rows.length;
+    }
+    
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOf(rows, rows.length, Object[].class);
+    }
+    
+    @Override
+    public void forEach(Consumer<? super Transaction> action) {
+        for (Transaction row : rows) {
+            action.accept(row);
+        }
+    }
+    
+    // Splits the backing array in halves, so parallel streams divide the work evenly
+    @Override
+    public Spliterator<Transaction> spliterator() {
+        return Spliterators.spliterator(rows, Spliterator.IMMUTABLE | Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+}
@@ -0,0 +1,48 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionId;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+// Position in the newest-first (date, id) listing used by TransactionRepository.getPage.
+// It names a key rather than an offset, so a page is found by seeking the date index
+// instead of skipping every row before it.
+public final class PageCursor {
+    public static final Comparator<Transaction> NEWEST_FIRST = Comparator
+            .comparing(Transaction::getDate)
+            .thenComparing(Transaction::getTransactionId)
+            .reversed();
+    public static final Comparator<Transaction> LARGEST_FIRST = Comparator
+            .comparingLong(Transaction::getAmountInPaise)
+            .reversed()
+            .thenComparing(NEWEST_FIRST);
+    
+    private final LocalDate date;
+    private final TransactionId id;
+    
+    private PageCursor(LocalDate date, TransactionId id) {
+        this.date = date;
+        this.id = id;
+    }
+    
+    // Continues the listing just past the given row
+    public static PageCursor after(Transaction transaction) {
+        return new PageCursor(transaction.getDate(), transaction.getTransactionId());
+    }
+    
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public TransactionId getId() {
+        return id;
+    }
+    
+    // True when the row comes after this position in the listing
+    boolean precedes(LocalDate rowDate, TransactionId rowId) {
+        int byDate = rowDate.compareTo(date);
+        return byDate < 0 || (byDate == 0 && rowId.compareTo(id) < 0);
+    }
+}
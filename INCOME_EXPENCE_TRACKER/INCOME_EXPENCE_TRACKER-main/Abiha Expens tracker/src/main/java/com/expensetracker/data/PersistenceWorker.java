@@ -0,0 +1,188 @@
+package com.expensetracker.data;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind journal writer. Mutations hand their encoded journal record to a queue and
+// return immediately; a single background thread collects records for up to maxDelay or
+// batchSize entries and appends them in one write. flush() is the durability barrier: it
+// fails while any record submitted before it is neither in the journal nor in a snapshot.
+class PersistenceWorker {
+    interface Sink {
+        void write(List<String> records) throws IOException;
+        
+        // Called after each batch so the owner can compact the journal if it has grown
+        void afterWrite();
+        
+        // Called when a batch could not be appended, and again after each later batch until it
+        // returns true, so the owner can save everything another way
+        boolean writeFailed(IOException e);
+    }
+    
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final Sink sink;
+    private final long maxDelayMillis;
+    private final int batchSize;
+    private final Thread thread;
+    private volatile boolean closed;
+    // Set once the writer thread has stopped taking entries; see flush()
+    private volatile boolean stopped;
+    // The failure that lost records, until the owner reports them saved; writer thread only
+    private IOException unsaved;
+    // unsaved as the writer thread left it, published to flush() through stopped
+    private IOException finalFailure;
+    
+    PersistenceWorker(Sink sink, long maxDelayMillis, int batchSize) {
+        this.sink = sink;
+        this.maxDelayMillis = maxDelayMillis;
+        this.batchSize = Math.max(1, batchSize);
+        this.thread = new Thread(this::run, "ledger-writer");
+        // Daemon so a missed close() cannot keep the JVM alive; Main.stop() closes it explicitly
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+    
+    // Records submitted together are always written together, in one append
+    void submitAll(List<String> records) {
+        if (closed) {
+            throw new IllegalStateException("Persistence worker is closed");
+        }
+        if (!records.isEmpty()) {
+            queue.add(new Entry(records, null));
+        }
+    }
+    
+    // Blocks until every record submitted before this call has been written, and throws if
+    // any of them could not be
+    void flush() {
+        CompletableFuture<Void> barrier = new CompletableFuture<>();
+        queue.add(new Entry(Collections.emptyList(), barrier));
+        if (stopped) {
+            // The writer may already have drained the queue for the last time; everything before
+            // this barrier was handled in that last pass, whose outcome is final
+            finish(barrier, finalFailure);
+        }
+        try {
+            barrier.join();
+        } catch (CompletionException e) {
+            throw new UncheckedIOException("Changes could not be saved", (IOException) e.getCause());
+        }
+    }
+    
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+        } catch (UncheckedIOException e) {
+            System.err.println("Error saving transactions on close: " + e.getCause().getMessage());
+        }
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void run() {
+        List<Entry> batch = new ArrayList<>();
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                batch.add(queue.take());
+                collect(batch);
+            } catch (InterruptedException e) {
+                // Only close() interrupts; write whatever is left and stop
+                stopping = true;
+                queue.drainTo(batch);
+            }
+            write(batch);
+            batch.clear();
+        }
+        finalFailure = unsaved;
+        stopped = true;
+        // Barriers added by a flush() racing the end of close()
+        queue.drainTo(batch);
+        for (Entry entry : batch) {
+            finish(entry.barrier, finalFailure);
+        }
+    }
+    
+    private static void finish(CompletableFuture<Void> barrier, IOException failure) {
+        if (barrier == null) {
+            return;
+        }
+        if (failure == null) {
+            barrier.complete(null);
+        } else {
+            barrier.completeExceptionally(failure);
+        }
+    }
+    
+    // Keeps collecting until the batch is full, the delay runs out or someone is waiting on a flush
+    private void collect(List<Entry> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        int records = batch.get(0).records.size();
+        while (records < batchSize && batch.get(batch.size() - 1).barrier == null) {
+            Entry next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            records += next.records.size();
+        }
+    }
+    
+    private void write(List<Entry> batch) {
+        List<String> records = new ArrayList<>();
+        for (Entry entry : batch) {
+            records.addAll(entry.records);
+        }
+        if (!records.isEmpty()) {
+            try {
+                sink.write(records);
+                sink.afterWrite();
+            } catch (IOException e) {
+                unsaved = e;
+            } catch (RuntimeException e) {
+                unsaved = new IOException("Error persisting transactions: " + e.getMessage(), e);
+            }
+        }
+        if (unsaved != null && saveAnotherWay()) {
+            unsaved = null;
+        }
+        for (Entry entry : batch) {
+            finish(entry.barrier, unsaved);
+        }
+    }
+    
+    private boolean saveAnotherWay() {
+        try {
+            return sink.writeFailed(unsaved);
+        } catch (RuntimeException e) {
+            System.err.println("Error saving transactions: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    private static final class Entry {
+        final List<String> records;
+        final CompletableFuture<Void> barrier;
+        
+        Entry(List<String> records, CompletableFuture<Void> barrier) {
+            this.records = records;
+            this.barrier = barrier;
+        }
+    }
+}
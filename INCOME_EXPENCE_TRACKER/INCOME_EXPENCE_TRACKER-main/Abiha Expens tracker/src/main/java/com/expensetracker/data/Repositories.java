@@ -0,0 +1,51 @@
+package com.expensetracker.data;
+
+import java.sql.SQLException;
+
+// Chooses the ledger backend. The in-memory DataManager is the default; run with
+// -Dexpensetracker.backend=h2 to keep the ledger in an embedded H2 database instead.
+public final class Repositories {
+    private static final String PROPERTY = "expensetracker.backend";
+    
+    private static TransactionRepository instance;
+    
+    private Repositories() {
+    }
+    
+    public static synchronized TransactionRepository getDefault() {
+        if (instance == null) {
+            instance = create();
+        }
+        return instance;
+    }
+    
+    // Flushes and closes the backend if one was opened
+    public static synchronized void close() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+    
+    private static TransactionRepository create() {
+        if ("h2".equalsIgnoreCase(System.getProperty(PROPERTY))) {
+            try {
+                SqlTransactionRepository repository = new SqlTransactionRepository(SqlTransactionRepository.DEFAULT_URL);
+                if (repository.isEmpty()) {
+                    // First start on the database: seed it from the file ledger, which is closed
+                    // again so its writer thread does not outlive the import
+                    DataManager fileLedger = DataManager.openUnshared();
+                    try {
+                        repository.importTransactions(fileLedger.getAllTransactions());
+                    } finally {
+                        fileLedger.close();
+                    }
+                }
+                return repository;
+            } catch (SQLException e) {
+                System.err.println("Error opening database, falling back to file storage: " + e.getMessage());
+            }
+        }
+        return DataManager.getInstance();
+    }
+}
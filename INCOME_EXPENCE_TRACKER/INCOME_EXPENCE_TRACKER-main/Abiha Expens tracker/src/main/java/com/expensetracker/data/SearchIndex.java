@@ -0,0 +1,235 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.Money;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionId;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+// Inverted index from lowercase words of the description, category name and amount to the
+// rows containing them, kept up to date as rows change. A query word matches a word holding
+// a letter wherever it appears in it, so "ocer" finds "Groceries", and a number (an amount,
+// or digits in a description) where the number starts with it, so "1250" finds "1250.00".
+// Numbers match by prefix only because nearly every amount is a distinct word: indexing
+// their suffixes would grow the index with the ledger and make short digit queries match
+// most rows. Matching words are found as sorted ranges: word starts in the postings, and
+// inner matches in a map of the suffixes of every distinct lettered word, kept per word
+// rather than per row. Only the postings of the rarest query word are scanned; each
+// candidate is checked against its own few words for the rest, so a search costs its
+// smallest posting range, not a scan of the ledger.
+class SearchIndex {
+    // Thousands separators inside numbers, dropped so "1,250" is found in the amount "1250.00"
+    private static final Pattern DIGIT_GROUPING = Pattern.compile("(?<=\\d),(?=\\d)");
+    
+    private final NavigableMap<String, Set<Row>> postings = new TreeMap<>();
+    // The proper suffixes of every indexed lettered word, to the words ending with them
+    private final NavigableMap<String, Set<String>> suffixes = new TreeMap<>();
+    private final Map<TransactionId, Row> rows = new HashMap<>();
+    // Results come back in the order rows were first added, like the ledger itself
+    private long nextSequence;
+    
+    // Indexes a new row, or re-indexes an existing one in place
+    void put(Transaction transaction) {
+        Row row = rows.get(transaction.getTransactionId());
+        if (row == null) {
+            row = new Row(nextSequence++);
+            rows.put(transaction.getTransactionId(), row);
+        } else {
+            removePostings(row);
+        }
+        row.transaction = transaction;
+        row.tokens = tokensOf(transaction);
+        for (String token : row.tokens) {
+            Set<Row> posting = postings.get(token);
+            if (posting == null) {
+                posting = new HashSet<>();
+                postings.put(token, posting);
+                addSuffixes(token);
+            }
+            posting.add(row);
+        }
+    }
+    
+    void remove(TransactionId id) {
+        Row row = rows.remove(id);
+        if (row != null) {
+            removePostings(row);
+        }
+    }
+    
+    // Rows matching every token, in ledger order
+    List<Transaction> search(List<String> queryTokens) {
+        Set<String> rarestWords = null;
+        String rarest = null;
+        int fewest = Integer.MAX_VALUE;
+        for (String token : queryTokens) {
+            Set<String> words = wordsContaining(token);
+            int size = 0;
+            for (String word : words) {
+                size += postings.get(word).size();
+            }
+            if (size < fewest) {
+                rarest = token;
+                rarestWords = words;
+                fewest = size;
+            }
+        }
+        
+        List<Row> matches = new ArrayList<>();
+        for (String word : rarestWords) {
+            for (Row row : postings.get(word)) {
+                // A row sits under every matching word; count it only under its first one
+                if (word.equals(firstMatch(row, rarest)) && matchesAll(row, queryTokens)) {
+                    matches.add(row);
+                }
+            }
+        }
+        matches.sort(Comparator.comparingLong(row -> row.sequence));
+        
+        List<Transaction> result = new ArrayList<>(matches.size());
+        for (Row row : matches) {
+            result.add(row.transaction);
+        }
+        return result;
+    }
+    
+    // Lowercase runs of letters, digits and inner dots, with digit grouping dropped, so
+    // "₹1,250.50 dinner" gives "1250.50" and "dinner"
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        if (lower.indexOf(',') >= 0) {
+            lower = DIGIT_GROUPING.matcher(lower).replaceAll("");
+        }
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            char c = i < lower.length() ? lower.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c) || (c == '.' && start >= 0)) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                int end = i;
+                while (lower.charAt(end - 1) == '.') {
+                    end--;
+                }
+                tokens.add(lower.substring(start, end));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+    
+    // The distinct words a row is found by, the description's, the category name's and the
+    // amount's; shared with the H2 backend, which stores them space-separated
+    static String[] tokensOf(Transaction transaction) {
+        Set<String> tokens = new LinkedHashSet<>(tokenize(transaction.getDescription()));
+        if (transaction.getCategory() != null) {
+            tokens.addAll(tokenize(transaction.getCategory().getDisplayName()));
+        }
+        tokens.addAll(tokenize(Money.plain(transaction.getAmountInPaise())));
+        return tokens.toArray(new String[0]);
+    }
+    
+    // The indexed words the query word matches, as defined by matches()
+    private Set<String> wordsContaining(String part) {
+        Set<String> words = new HashSet<>(postings.subMap(part, true, part + Character.MAX_VALUE, false).keySet());
+        for (Set<String> ending : suffixes.subMap(part, true, part + Character.MAX_VALUE, false).values()) {
+            words.addAll(ending);
+        }
+        return words;
+    }
+    
+    // The matching rule, shared with the H2 backend's search
+    static boolean matches(String word, String part) {
+        return isNumber(word) ? word.startsWith(part) : word.contains(part);
+    }
+    
+    // Digits and dots only, like amounts; every other word holds a letter
+    static boolean isNumber(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (!Character.isDigit(c) && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static String firstMatch(Row row, String part) {
+        for (String token : row.tokens) {
+            if (matches(token, part)) {
+                return token;
+            }
+        }
+        return null;
+    }
+    
+    private static boolean matchesAll(Row row, List<String> parts) {
+        for (String part : parts) {
+            if (firstMatch(row, part) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private void addSuffixes(String word) {
+        if (isNumber(word)) {
+            return;
+        }
+        for (int i = 1; i < word.length(); i++) {
+            suffixes.computeIfAbsent(word.substring(i), s -> new HashSet<>()).add(word);
+        }
+    }
+    
+    private void removeSuffixes(String word) {
+        if (isNumber(word)) {
+            return;
+        }
+        for (int i = 1; i < word.length(); i++) {
+            String suffix = word.substring(i);
+            Set<String> ending = suffixes.get(suffix);
+            ending.remove(word);
+            if (ending.isEmpty()) {
+                suffixes.remove(suffix);
+            }
+        }
+    }
+    
+    private void removePostings(Row row) {
+        for (String token : row.tokens) {
+            Set<Row> posting = postings.get(token);
+            posting.remove(row);
+            if (posting.isEmpty()) {
+                postings.remove(token);
+                removeSuffixes(token);
+            }
+        }
+    }
+    
+    // Identity-hashed, so posting sets never compare row contents
+    private static final class Row {
+        final long sequence;
+        Transaction transaction;
+        String[] tokens;
+        
+        Row(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+}
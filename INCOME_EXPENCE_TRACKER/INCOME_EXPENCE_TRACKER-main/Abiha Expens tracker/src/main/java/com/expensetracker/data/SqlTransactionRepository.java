@@ -0,0 +1,523 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.CategoryTotals;
+import com.expensetracker.model.Money;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+// Embedded H2 backend. Range queries and totals are pushed down to indexed SQL
+// instead of streaming over an in-memory list, so the ledger never has to fit on the heap.
+public class SqlTransactionRepository implements TransactionRepository {
+    public static final String DEFAULT_URL = "jdbc:h2:file:./data/transactions";
+    
+    private static final String COLUMNS = "id, type, category, amount, description, tx_date";
+    // Adds replace any row with the same id, matching the in-memory ledger
+    private static final String UPSERT_SQL =
+            "MERGE INTO transactions (" + COLUMNS + ", search_words, search_numbers) KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE transactions SET type = ?, category = ?, amount = ?, "
+            + "description = ?, tx_date = ?, search_words = ?, search_numbers = ? WHERE id = ?";
+    private static final LocalDate MIN_SQL_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate MAX_SQL_DATE = LocalDate.of(9999, 12, 31);
+    
+    private final Connection connection;
+    // Bumped by every mutator, whether or not the statement succeeded
+    private long version;
+    // Published from inside the synchronized mutators, so subscribers see commit order
+    private final SubmissionPublisher<TransactionChange> changes = new SubmissionPublisher<>();
+    
+    public SqlTransactionRepository(String jdbcUrl) throws SQLException {
+        this.connection = DriverManager.getConnection(jdbcUrl);
+        createSchema();
+    }
+    
+    private void createSchema() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS transactions ("
+                    + "seq BIGINT GENERATED BY DEFAULT AS IDENTITY, "
+                    + "id VARCHAR(64) PRIMARY KEY, "
+                    + "type VARCHAR(16) NOT NULL, "
+                    + "category VARCHAR(32) NOT NULL, "
+                    + "amount DECIMAL(19, 2) NOT NULL, "
+                    + "description VARCHAR(1024), "
+                    + "tx_date DATE NOT NULL)");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_transactions_date ON transactions (tx_date)");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_transactions_type_date ON transactions (type, tx_date)");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_transactions_category_date ON transactions (category, tx_date)");
+            // Keyset pages seek these instead of sorting the table
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_transactions_date_id ON transactions (tx_date, id)");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_transactions_type_date_id ON transactions (type, tx_date, id)");
+            // SearchIndex's words for the row, so search matches exactly what the in-memory index
+            // does: words with letters in one column, numbers in the other; see searchWords
+            statement.execute("ALTER TABLE transactions ADD COLUMN IF NOT EXISTS search_words VARCHAR(2048)");
+            statement.execute("ALTER TABLE transactions ADD COLUMN IF NOT EXISTS search_numbers VARCHAR(2048)");
+        }
+        fillSearchWords();
+    }
+    
+    // Rows written before the search columns existed get them once, on the first open after
+    // the upgrade
+    private void fillSearchWords() throws SQLException {
+        List<Transaction> missing = query("SELECT " + COLUMNS + " FROM transactions WHERE search_words IS NULL");
+        if (!missing.isEmpty() && !executeBatch("UPDATE transactions SET search_words = ?, search_numbers = ? WHERE id = ?",
+                missing, (statement, transaction) -> {
+                    bindSearchWords(statement, 1, transaction);
+                    statement.setString(3, transaction.getId());
+                }, "indexing")) {
+            throw new SQLException("Could not fill in search words");
+        }
+    }
+    
+    @Override
+    public synchronized void addTransaction(Transaction transaction) {
+        version++;
+        boolean publish = changes.hasSubscribers();
+        Transaction before = publish ? findById(transaction.getId()) : null;
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT_SQL)) {
+            bind(statement, transaction);
+            statement.executeUpdate();
+            if (publish) {
+                changes.submit(added(before, transaction));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error adding transaction: " + e.getMessage());
+        }
+    }
+    
+    // Bulk import in a single JDBC batch, used when seeding the database from a snapshot
+    public synchronized void importTransactions(Collection<Transaction> transactions) {
+        executeBatch(UPSERT_SQL, transactions, SqlTransactionRepository::bind, "importing");
+    }
+    
+    @Override
+    public synchronized void updateTransaction(Transaction transaction) {
+        version++;
+        Transaction before = changes.hasSubscribers() ? findById(transaction.getId()) : null;
+        try (PreparedStatement statement = connection.prepareStatement(UPDATE_SQL)) {
+            bindUpdate(statement, transaction);
+            if (statement.executeUpdate() > 0 && before != null) {
+                changes.submit(TransactionChange.updated(before, TransactionChange.copyOf(transaction)));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error updating transaction: " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public synchronized void deleteTransaction(String id) {
+        version++;
+        Transaction before = changes.hasSubscribers() ? findById(id) : null;
+        try (PreparedStatement statement = connection.prepareStatement("DELETE FROM transactions WHERE id = ?")) {
+            statement.setString(1, id);
+            if (statement.executeUpdate() > 0 && before != null) {
+                changes.submit(TransactionChange.removed(before));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error deleting transaction: " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public synchronized void addTransactions(Collection<Transaction> transactions) {
+        boolean publish = changes.hasSubscribers();
+        List<Transaction> before = new ArrayList<>();
+        if (publish) {
+            for (Transaction transaction : transactions) {
+                before.add(findById(transaction.getId()));
+            }
+        }
+        if (executeBatch(UPSERT_SQL, transactions, SqlTransactionRepository::bind, "adding") && publish) {
+            int i = 0;
+            for (Transaction transaction : transactions) {
+                changes.submit(added(before.get(i++), transaction));
+            }
+        }
+    }
+    
+    // An add over an existing id replaced that row, so subscribers see it as an update
+    private static TransactionChange added(Transaction before, Transaction transaction) {
+        Transaction after = TransactionChange.copyOf(transaction);
+        return before == null ? TransactionChange.added(after) : TransactionChange.updated(before, after);
+    }
+    
+    @Override
+    public synchronized void updateTransactions(Collection<Transaction> transactions) {
+        List<Transaction> before = new ArrayList<>();
+        if (changes.hasSubscribers()) {
+            for (Transaction transaction : transactions) {
+                before.add(findById(transaction.getId()));
+            }
+        }
+        if (executeBatch(UPDATE_SQL, transactions, SqlTransactionRepository::bindUpdate, "updating") && !before.isEmpty()) {
+            int i = 0;
+            for (Transaction transaction : transactions) {
+                Transaction old = before.get(i++);
+                if (old != null) {
+                    changes.submit(TransactionChange.updated(old, TransactionChange.copyOf(transaction)));
+                }
+            }
+        }
+    }
+    
+    @Override
+    public synchronized void deleteTransactions(Collection<String> ids) {
+        List<Transaction> before = new ArrayList<>();
+        if (changes.hasSubscribers()) {
+            for (String id : ids) {
+                before.add(findById(id));
+            }
+        }
+        if (executeBatch("DELETE FROM transactions WHERE id = ?", ids,
+                (statement, id) -> statement.setString(1, id), "deleting")) {
+            for (Transaction old : before) {
+                if (old != null) {
+                    changes.submit(TransactionChange.removed(old));
+                }
+            }
+        }
+    }
+    
+    @Override
+    public synchronized List<Transaction> getAllTransactions() {
+        return query("SELECT " + COLUMNS + " FROM transactions ORDER BY seq");
+    }
+    
+    @Override
+    public synchronized List<Transaction> getTransactionsByType(TransactionType type) {
+        return query("SELECT " + COLUMNS + " FROM transactions WHERE type = ? ORDER BY seq", type.name());
+    }
+    
+    @Override
+    public synchronized List<Transaction> getTransactionsByDateRange(LocalDate start, LocalDate end) {
+        return query("SELECT " + COLUMNS + " FROM transactions WHERE tx_date BETWEEN ? AND ? ORDER BY tx_date, seq",
+                toSqlDate(start), toSqlDate(end));
+    }
+    
+    // Same matching as the in-memory index, over the same words: SearchIndex tokenizes both the
+    // query and, when a row is written, its search columns. This is a scan; only the in-memory
+    // index answers from postings.
+    @Override
+    public synchronized List<Transaction> search(String query) {
+        List<String> tokens = SearchIndex.tokenize(query);
+        if (tokens.isEmpty()) {
+            return getAllTransactions();
+        }
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM transactions WHERE TRUE");
+        List<Object> parameters = new ArrayList<>();
+        for (String token : tokens) {
+            sql.append(" AND (search_words LIKE ? OR search_numbers LIKE ?)");
+            parameters.add("%" + token + "%");
+            parameters.add("% " + token + "%");
+        }
+        sql.append(" ORDER BY seq");
+        return query(sql.toString(), parameters.toArray());
+    }
+    
+    @Override
+    public synchronized List<Transaction> getPage(TransactionType type, PageCursor after, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM transactions WHERE TRUE");
+        List<Object> parameters = new ArrayList<>();
+        if (type != null) {
+            sql.append(" AND type = ?");
+            parameters.add(type.name());
+        }
+        if (after != null) {
+            sql.append(" AND (tx_date < ? OR (tx_date = ? AND id < ?))");
+            parameters.add(toSqlDate(after.getDate()));
+            parameters.add(toSqlDate(after.getDate()));
+            parameters.add(after.getId().toString());
+        }
+        sql.append(" ORDER BY tx_date DESC, id DESC LIMIT ?");
+        parameters.add(Math.max(limit, 0));
+        return query(sql.toString(), parameters.toArray());
+    }
+    
+    @Override
+    public synchronized List<Transaction> getRecent(int k, LocalDate start, LocalDate end) {
+        return query("SELECT " + COLUMNS + " FROM transactions WHERE tx_date BETWEEN ? AND ?"
+                + " ORDER BY tx_date DESC, id DESC LIMIT ?", toSqlDate(start), toSqlDate(end), Math.max(k, 0));
+    }
+    
+    @Override
+    public synchronized List<Transaction> getLargest(int k, TransactionType type, LocalDate start, LocalDate end) {
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM transactions WHERE tx_date BETWEEN ? AND ?");
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(toSqlDate(start));
+        parameters.add(toSqlDate(end));
+        if (type != null) {
+            sql.append(" AND type = ?");
+            parameters.add(type.name());
+        }
+        sql.append(" ORDER BY amount DESC, tx_date DESC, id DESC LIMIT ?");
+        parameters.add(Math.max(k, 0));
+        return query(sql.toString(), parameters.toArray());
+    }
+    
+    @Override
+    public synchronized long getTotalIncome() {
+        return sumByType(TransactionType.INCOME);
+    }
+    
+    @Override
+    public synchronized long getTotalExpense() {
+        return sumByType(TransactionType.EXPENSE);
+    }
+    
+    @Override
+    public synchronized long getBalance() {
+        String sql = "SELECT COALESCE(SUM(CASE WHEN type = ? THEN amount ELSE -amount END), 0) FROM transactions";
+        return Money.fromDecimal(scalar(sql, TransactionType.INCOME.name()));
+    }
+    
+    @Override
+    public synchronized long getTotal(TransactionType type, LocalDate start, LocalDate end) {
+        return sum("SELECT COALESCE(SUM(amount), 0) FROM transactions WHERE type = ? AND tx_date BETWEEN ? AND ?",
+                type.name(), toSqlDate(start), toSqlDate(end));
+    }
+    
+    @Override
+    public synchronized int getTransactionCount(LocalDate start, LocalDate end) {
+        return scalar("SELECT COUNT(*) FROM transactions WHERE tx_date BETWEEN ? AND ?",
+                toSqlDate(start), toSqlDate(end)).intValue();
+    }
+    
+    @Override
+    public synchronized CategoryTotals getCategoryTotals(TransactionType type, LocalDate start, LocalDate end) {
+        CategoryTotals totals = new CategoryTotals();
+        String sql = "SELECT category, SUM(amount), COUNT(*) FROM transactions WHERE type = ? AND tx_date BETWEEN ? AND ? GROUP BY category";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            setParameters(statement, type.name(), toSqlDate(start), toSqlDate(end));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    totals.add(Category.valueOf(rs.getString(1)), Money.fromDecimal(rs.getBigDecimal(2)), rs.getInt(3));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error querying transactions: " + e.getMessage());
+        }
+        return totals;
+    }
+    
+    @Override
+    public synchronized long[] getDailyTotals(TransactionType type, LocalDate start, LocalDate end) {
+        long[] totals = new long[(int) (end.toEpochDay() - start.toEpochDay() + 1)];
+        String sql = "SELECT tx_date, SUM(amount) FROM transactions WHERE type = ? AND tx_date BETWEEN ? AND ? GROUP BY tx_date";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            setParameters(statement, type.name(), Date.valueOf(start), Date.valueOf(end));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    LocalDate date = rs.getDate(1).toLocalDate();
+                    totals[(int) (date.toEpochDay() - start.toEpochDay())] = Money.fromDecimal(rs.getBigDecimal(2));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error querying transactions: " + e.getMessage());
+        }
+        return totals;
+    }
+    
+    @Override
+    public synchronized long[] getMonthlyTotals(TransactionType type, YearMonth first, YearMonth last) {
+        long[] totals = new long[(int) (first.until(last, ChronoUnit.MONTHS) + 1)];
+        String sql = "SELECT YEAR(tx_date), MONTH(tx_date), SUM(amount) FROM transactions "
+                + "WHERE type = ? AND tx_date BETWEEN ? AND ? GROUP BY YEAR(tx_date), MONTH(tx_date)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            setParameters(statement, type.name(), Date.valueOf(first.atDay(1)), Date.valueOf(last.atEndOfMonth()));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    YearMonth month = YearMonth.of(rs.getInt(1), rs.getInt(2));
+                    totals[(int) first.until(month, ChronoUnit.MONTHS)] = Money.fromDecimal(rs.getBigDecimal(3));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error querying transactions: " + e.getMessage());
+        }
+        return totals;
+    }
+    
+    public synchronized boolean isEmpty() {
+        return scalar("SELECT COUNT(*) FROM transactions").signum() == 0;
+    }
+    
+    @Override
+    public Flow.Publisher<TransactionChange> changes() {
+        return changes;
+    }
+    
+    @Override
+    public synchronized long getVersion() {
+        return version;
+    }
+    
+    @Override
+    public synchronized void flush() {
+        // Statements are auto-committed, but H2 writes commits to disk lazily; this forces them
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CHECKPOINT SYNC");
+        } catch (SQLException e) {
+            throw new UncheckedIOException(new IOException("Error flushing database: " + e.getMessage(), e));
+        }
+    }
+    
+    @Override
+    public synchronized void close() {
+        changes.close();
+        try {
+            flush();
+        } catch (UncheckedIOException e) {
+            System.err.println(e.getCause().getMessage());
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing database: " + e.getMessage());
+        }
+    }
+    
+    private long sumByType(TransactionType type) {
+        return sum("SELECT COALESCE(SUM(amount), 0) FROM transactions WHERE type = ?", type.name());
+    }
+    
+    // DECIMAL(19,2) sums come back exact, so they convert to paise without rounding
+    private long sum(String sql, Object... parameters) {
+        return Money.fromDecimal(scalar(sql, parameters));
+    }
+    
+    private BigDecimal scalar(String sql, Object... parameters) {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            setParameters(statement, parameters);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getBigDecimal(1) : BigDecimal.ZERO;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error querying transactions: " + e.getMessage());
+            return BigDecimal.ZERO;
+        }
+    }
+    
+    // The row as currently stored, or null; read for the before side of change events
+    private Transaction findById(String id) {
+        List<Transaction> rows = query("SELECT " + COLUMNS + " FROM transactions WHERE id = ?", id);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+    
+    private List<Transaction> query(String sql, Object... parameters) {
+        List<Transaction> result = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            setParameters(statement, parameters);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Transaction transaction = new Transaction(
+                            rs.getString("id"),
+                            TransactionType.valueOf(rs.getString("type")),
+                            Category.valueOf(rs.getString("category")),
+                            0,
+                            rs.getString("description"),
+                            rs.getDate("tx_date").toLocalDate());
+                    transaction.setAmountInPaise(Money.fromDecimal(rs.getBigDecimal("amount")));
+                    result.add(transaction);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error querying transactions: " + e.getMessage());
+        }
+        return result;
+    }
+    
+    // Runs the whole batch in one database transaction, so it is applied entirely or not at all
+    // Returns whether the whole batch was committed
+    private <T> boolean executeBatch(String sql, Collection<T> rows, Binder<T> binder, String action) {
+        version++;
+        try {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (T row : rows) {
+                    binder.bind(statement, row);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error " + action + " transactions: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    // Query words hold no spaces, so a LIKE on "%word%" can only match inside one stored word
+    // with letters, and one on "% word%" only at the start of a stored number, each of which
+    // is stored after a space. Together that is SearchIndex.matches.
+    private static void bindSearchWords(PreparedStatement statement, int index, Transaction transaction)
+            throws SQLException {
+        StringBuilder words = new StringBuilder();
+        StringBuilder numbers = new StringBuilder();
+        for (String token : SearchIndex.tokensOf(transaction)) {
+            (SearchIndex.isNumber(token) ? numbers : words).append(' ').append(token);
+        }
+        statement.setString(index, words.toString());
+        statement.setString(index + 1, numbers.toString());
+    }
+    
+    private static void setParameters(PreparedStatement statement, Object... parameters) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            statement.setObject(i + 1, parameters[i]);
+        }
+    }
+    
+    // LocalDate.MIN/MAX are outside the range a SQL DATE can hold
+    private static Date toSqlDate(LocalDate date) {
+        if (date.isBefore(MIN_SQL_DATE)) {
+            return Date.valueOf(MIN_SQL_DATE);
+        }
+        return Date.valueOf(date.isAfter(MAX_SQL_DATE) ? MAX_SQL_DATE : date);
+    }
+    
+    private static void bindUpdate(PreparedStatement statement, Transaction transaction) throws SQLException {
+        statement.setString(1, transaction.getType().name());
+        statement.setString(2, transaction.getCategory().name());
+        statement.setBigDecimal(3, Money.toDecimal(transaction.getAmountInPaise()));
+        statement.setString(4, transaction.getDescription());
+        statement.setDate(5, Date.valueOf(transaction.getDate()));
+        bindSearchWords(statement, 6, transaction);
+        statement.setString(8, transaction.getId());
+    }
+    
+    private static void bind(PreparedStatement statement, Transaction transaction) throws SQLException {
+        statement.setString(1, transaction.getId());
+        statement.setString(2, transaction.getType().name());
+        statement.setString(3, transaction.getCategory().name());
+        statement.setBigDecimal(4, Money.toDecimal(transaction.getAmountInPaise()));
+        statement.setString(5, transaction.getDescription());
+        statement.setDate(6, Date.valueOf(transaction.getDate()));
+        bindSearchWords(statement, 7, transaction);
+    }
+    
+    private interface Binder<T> {
+        void bind(PreparedStatement statement, T row) throws SQLException;
+    }
+}
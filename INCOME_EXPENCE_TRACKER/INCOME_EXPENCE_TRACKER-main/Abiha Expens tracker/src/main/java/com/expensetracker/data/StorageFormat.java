@@ -0,0 +1,28 @@
+package com.expensetracker.data;
+
+public enum StorageFormat {
+    JSON("transactions.json"),
+    BINARY("transactions.dat");
+    
+    private static final String PROPERTY = "expensetracker.storage";
+    
+    private final String fileName;
+    
+    StorageFormat(String fileName) {
+        this.fileName = fileName;
+    }
+    
+    public String getFileName() {
+        return fileName;
+    }
+    
+    public String getBackupFileName() {
+        return fileName + ".bak";
+    }
+    
+    // Binary snapshots are opt-in: run with -Dexpensetracker.storage=binary
+    public static StorageFormat fromSystemProperty() {
+        String value = System.getProperty(PROPERTY, "json");
+        return "binary".equalsIgnoreCase(value) ? BINARY : JSON;
+    }
+}
@@ -0,0 +1,105 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Money;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Hand-written field binding for Transaction so the ledger can be streamed
+// token by token instead of going through Gson's reflective adapters
+public class TransactionAdapter extends TypeAdapter<Transaction> {
+    private final LocalDateAdapter dateAdapter = new LocalDateAdapter();
+    
+    @Override
+    public void write(JsonWriter out, Transaction transaction) throws IOException {
+        if (transaction == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(transaction.getId());
+        out.name("type");
+        writeEnum(out, transaction.getType());
+        out.name("category");
+        writeEnum(out, transaction.getCategory());
+        // Written as an exact decimal, e.g. 120.50
+        out.name("amount").value(Money.toDecimal(transaction.getAmountInPaise()));
+        out.name("description").value(transaction.getDescription());
+        out.name("date");
+        dateAdapter.write(out, transaction.getDate());
+        out.endObject();
+    }
+    
+    @Override
+    public Transaction read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        
+        String id = null;
+        TransactionType type = null;
+        Category category = null;
+        long amountInPaise = 0;
+        String description = null;
+        LocalDate date = null;
+        
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id":
+                    id = in.nextString();
+                    break;
+                case "type":
+                    type = TransactionType.valueOf(in.nextString());
+                    break;
+                case "category":
+                    category = Category.valueOf(in.nextString());
+                    break;
+                case "amount":
+                    amountInPaise = Money.parse(in.nextString());
+                    break;
+                case "description":
+                    description = in.nextString();
+                    break;
+                case "date":
+                    date = dateAdapter.read(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        
+        if (id == null) {
+            id = UUID.randomUUID().toString();
+        }
+        if (date == null) {
+            date = LocalDate.now();
+        }
+        Transaction transaction = new Transaction(id, type, category, 0, description, date);
+        transaction.setAmountInPaise(amountInPaise);
+        return transaction;
+    }
+    
+    private static void writeEnum(JsonWriter out, Enum<?> value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+        } else {
+            out.value(value.name());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.Transaction;
+
+// One row's change, as published by TransactionRepository.changes(). before and after are
+// copies taken when the change was applied, so they stay accurate however the stored rows are
+// mutated later. before is null for ADDED and after is null for REMOVED.
+public final class TransactionChange {
+    public enum Kind {
+        ADDED, UPDATED, REMOVED
+    }
+    
+    private final Kind kind;
+    private final Transaction before;
+    private final Transaction after;
+    
+    private TransactionChange(Kind kind, Transaction before, Transaction after) {
+        this.kind = kind;
+        this.before = before;
+        this.after = after;
+    }
+    
+    static TransactionChange added(Transaction after) {
+        return new TransactionChange(Kind.ADDED, null, after);
+    }
+    
+    static TransactionChange updated(Transaction before, Transaction after) {
+        return new TransactionChange(Kind.UPDATED, before, after);
+    }
+    
+    static TransactionChange removed(Transaction before) {
+        return new TransactionChange(Kind.REMOVED, before, null);
+    }
+    
+    static Transaction copyOf(Transaction transaction) {
+        Transaction copy = new Transaction(transaction.getTransactionId(), transaction.getType(),
+                transaction.getCategory(), 0, transaction.getDescription(), transaction.getDate());
+        copy.setAmountInPaise(transaction.getAmountInPaise());
+        return copy;
+    }
+    
+    public Kind getKind() {
+        return kind;
+    }
+    
+    public Transaction getBefore() {
+        return before;
+    }
+    
+    public Transaction getAfter() {
+        return after;
+    }
+}
@@ -0,0 +1,139 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionId;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+// Append-only log of ledger mutations, one JSON record per line. Records are
+// replayed on top of the last snapshot at startup and the journal is reset
+// whenever a new snapshot is compacted.
+public class TransactionJournal {
+    public enum Operation { ADD, UPDATE, DELETE }
+    
+    private final Path path;
+    private final Gson gson;
+    private int recordCount;
+    
+    public TransactionJournal(Path path, Gson gson) {
+        this.path = path;
+        this.gson = gson;
+    }
+    
+    // Encodes a record up front, so later changes to the Transaction object cannot leak into it
+    public String encode(Operation operation, Transaction transaction) {
+        JsonObject record = new JsonObject();
+        record.addProperty("op", operation.name());
+        if (operation == Operation.DELETE) {
+            record.addProperty("id", transaction.getId());
+        } else {
+            record.add("transaction", gson.toJsonTree(transaction));
+        }
+        return gson.toJson(record);
+    }
+    
+    // Appends a batch of encoded records with a single open and write, and forces them to
+    // the device before returning, so a batch that was appended survives a power failure
+    public void appendAll(List<String> records) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+            for (String record : records) {
+                writer.write(record);
+                writer.write('\n');
+            }
+            writer.flush();
+            channel.force(false);
+        }
+        recordCount += records.size();
+    }
+    
+    // Applies every journal record to the given id-keyed map. Replay is idempotent,
+    // so records that already made it into the snapshot are harmless. A torn final write,
+    // whose newline never made it to disk, is cut off the file, so the next append starts on
+    // a fresh line instead of extending it. A complete line that cannot be applied is skipped
+    // with a warning and left in the file; the records after it still count, and the next
+    // compaction drops it. The whole file is read at once; compaction keeps it bounded.
+    public void replay(Map<TransactionId, Transaction> transactions) throws IOException {
+        recordCount = 0;
+        if (!Files.exists(path)) {
+            return;
+        }
+        
+        byte[] bytes = Files.readAllBytes(path);
+        // Just past the last complete record; a record only counts once its newline is written
+        int end = 0;
+        int lineNumber = 0;
+        for (int start = 0, newline; (newline = indexOf(bytes, (byte) '\n', start)) >= 0; start = newline + 1) {
+            lineNumber++;
+            String line = new String(bytes, start, newline - start, StandardCharsets.UTF_8);
+            if (!line.isBlank()) {
+                try {
+                    apply(line, transactions);
+                    recordCount++;
+                } catch (RuntimeException e) {
+                    // Malformed JSON, an unknown op, a bad id, amount or date: all bad content
+                    System.err.println("Skipping unreadable journal record on line " + lineNumber + ": " + e.getMessage());
+                }
+            }
+            end = newline + 1;
+        }
+        
+        if (end < bytes.length) {
+            System.err.println("Truncating incomplete journal tail of " + (bytes.length - end) + " bytes");
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(end);
+                channel.force(false);
+            }
+        }
+    }
+    
+    // Decodes the whole record before touching the map, so a bad one changes nothing
+    private void apply(String line, Map<TransactionId, Transaction> transactions) {
+        JsonObject record = gson.fromJson(line, JsonObject.class);
+        if (record == null || !record.has("op")) {
+            throw new JsonParseException("record has no op");
+        }
+        Operation operation = Operation.valueOf(record.get("op").getAsString());
+        if (operation == Operation.DELETE) {
+            transactions.remove(TransactionId.of(record.get("id").getAsString()));
+            return;
+        }
+        Transaction transaction = gson.fromJson(record.get("transaction"), Transaction.class);
+        if (transaction == null || transaction.getType() == null || transaction.getCategory() == null) {
+            throw new JsonParseException("record has no complete transaction");
+        }
+        transactions.put(transaction.getTransactionId(), transaction);
+    }
+    
+    private static int indexOf(byte[] bytes, byte value, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    public void reset() throws IOException {
+        Files.deleteIfExists(path);
+        recordCount = 0;
+    }
+    
+    public int size() {
+        return recordCount;
+    }
+}
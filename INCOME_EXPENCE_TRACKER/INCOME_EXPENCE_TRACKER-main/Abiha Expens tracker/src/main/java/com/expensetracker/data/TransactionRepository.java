@@ -0,0 +1,90 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.CategoryTotals;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+public interface TransactionRepository {
+    // Adding a transaction whose id is already stored replaces that row, and subscribers
+    // see the replacement as an update
+    void addTransaction(Transaction transaction);
+    
+    void updateTransaction(Transaction transaction);
+    
+    void deleteTransaction(String id);
+    
+    // Bulk variants apply the whole batch at once and persist it in a single write
+    void addTransactions(Collection<Transaction> transactions);
+    
+    void updateTransactions(Collection<Transaction> transactions);
+    
+    void deleteTransactions(Collection<String> ids);
+    
+    // Rows returned by the queries below may be the backend's own and must not be edited;
+    // change a row by passing an edited copy to updateTransaction
+    List<Transaction> getAllTransactions();
+    
+    List<Transaction> getTransactionsByType(TransactionType type);
+    
+    List<Transaction> getTransactionsByDateRange(LocalDate start, LocalDate end);
+    
+    // Rows where every word of the query matches a word of the description, the category
+    // name or the amount, case-insensitively, in ledger order: anywhere inside a word with
+    // letters, from the start of a number. Both backends use SearchIndex's words and rule.
+    List<Transaction> search(String query);
+    
+    // Up to limit rows of the given type (null for any) in newest-first (date, id) order,
+    // strictly after the cursor, or from the newest row when it is null. The next page
+    // continues from PageCursor.after(last row), so rows added or removed meanwhile never
+    // shift or repeat the rest of the listing.
+    List<Transaction> getPage(TransactionType type, PageCursor after, int limit);
+    
+    // The k newest rows dated within the range, newest first in the same order as getPage
+    List<Transaction> getRecent(int k, LocalDate start, LocalDate end);
+    
+    // The k largest rows of the given type (null for any) dated within the range, largest
+    // first; equal amounts are ordered newest first
+    List<Transaction> getLargest(int k, TransactionType type, LocalDate start, LocalDate end);
+    
+    // All totals below are exact amounts in paise; see Money for formatting and conversion
+    long getTotalIncome();
+    
+    long getTotalExpense();
+    
+    long getBalance();
+    
+    // Aggregate queries; backends answer these from pre-computed rollups or indexed SQL.
+    // Pass LocalDate.MIN / LocalDate.MAX for an unbounded range.
+    long getTotal(TransactionType type, LocalDate start, LocalDate end);
+    
+    int getTransactionCount(LocalDate start, LocalDate end);
+    
+    CategoryTotals getCategoryTotals(TransactionType type, LocalDate start, LocalDate end);
+    
+    // One entry per day from start to end inclusive
+    long[] getDailyTotals(TransactionType type, LocalDate start, LocalDate end);
+    
+    // One entry per month from first to last inclusive
+    long[] getMonthlyTotals(TransactionType type, YearMonth first, YearMonth last);
+    
+    // Every change as it is applied, in commit order. Subscribers are called on a shared
+    // executor and must not call back into the repository from onNext: a subscriber that
+    // falls a full buffer behind holds up the writer until it catches up.
+    Flow.Publisher<TransactionChange> changes();
+    
+    // Changes whenever the ledger does; equal values mean nothing changed in between
+    long getVersion();
+    
+    // Blocks until every change made so far is durable; throws UncheckedIOException if some of
+    // them could not be made durable
+    void flush();
+    
+    // Flushes and releases the backend; called once on application shutdown
+    void close();
+}
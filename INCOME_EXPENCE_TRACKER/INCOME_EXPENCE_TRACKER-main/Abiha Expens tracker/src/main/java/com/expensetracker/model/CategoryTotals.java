@@ -0,0 +1,87 @@
+package com.expensetracker.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Per-category amounts in paise, indexed by Category.ordinal(). Adding a row is two array
+// writes, so breakdowns cost the same handful of arrays however many rows feed them.
+public final class CategoryTotals {
+    private static final Category[] CATEGORIES = Category.values();
+    
+    private final long[] amounts = new long[CATEGORIES.length];
+    private final int[] counts = new int[CATEGORIES.length];
+    
+    public void add(Category category, long amountInPaise) {
+        add(category, amountInPaise, 1);
+    }
+    
+    // For merging pre-aggregated totals that cover several rows
+    public void add(Category category, long amountInPaise, int rows) {
+        amounts[category.ordinal()] += amountInPaise;
+        counts[category.ordinal()] += rows;
+    }
+    
+    public long get(Category category) {
+        return amounts[category.ordinal()];
+    }
+    
+    public int getCount(Category category) {
+        return counts[category.ordinal()];
+    }
+    
+    public long getTotal() {
+        long total = 0;
+        for (long amount : amounts) {
+            total += amount;
+        }
+        return total;
+    }
+    
+    // Share of the overall total, as a percentage
+    public double getPercentage(Category category) {
+        return Money.percentage(get(category), getTotal());
+    }
+    
+    // True when no rows were added for any category
+    public boolean isEmpty() {
+        for (int count : counts) {
+            if (count != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // Categories with at least one row, largest amount first
+    public List<Category> byAmountDescending() {
+        return largest(CATEGORIES.length);
+    }
+    
+    // The k largest categories with at least one row, largest first. Insertion into a
+    // k-slot array, since there are only a handful of categories.
+    public List<Category> largest(int k) {
+        int limit = Math.min(k, CATEGORIES.length);
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        int[] top = new int[limit];
+        int size = 0;
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            if (counts[i] == 0 || (size == limit && amounts[i] <= amounts[top[size - 1]])) {
+                continue;
+            }
+            int slot = size < limit ? size++ : size - 1;
+            while (slot > 0 && amounts[top[slot - 1]] < amounts[i]) {
+                top[slot] = top[slot - 1];
+                slot--;
+            }
+            top[slot] = i;
+        }
+        List<Category> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(CATEGORIES[top[i]]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,65 @@
+package com.expensetracker.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Amounts are carried as a long count of paise wherever they are stored, summed or formatted,
+// so totals are exact and accumulating them never allocates. double is only used at the
+// edges, for chart values and percentages.
+public final class Money {
+    public static final String SYMBOL = "₹";
+    
+    private Money() {
+    }
+    
+    public static long fromDouble(double amount) {
+        return Math.round(amount * 100);
+    }
+    
+    public static double toDouble(long paise) {
+        return paise / 100.0;
+    }
+    
+    public static long fromDecimal(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+    
+    public static BigDecimal toDecimal(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+    
+    // Parses user or file input exactly, without a detour through double. Amounts that do
+    // not fit are reported like any other malformed number.
+    public static long parse(String text) {
+        try {
+            return fromDecimal(new BigDecimal(text.trim()));
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+    }
+    
+    // "₹1234.50", matching the "₹%.2f" format used throughout the UI
+    public static String format(long paise) {
+        return SYMBOL + plain(paise);
+    }
+    
+    // "1234.50" without the currency symbol
+    public static String plain(long paise) {
+        StringBuilder text = new StringBuilder(16);
+        if (paise < 0) {
+            text.append('-');
+        }
+        long abs = Math.abs(paise);
+        long fraction = abs % 100;
+        text.append(abs / 100).append('.');
+        if (fraction < 10) {
+            text.append('0');
+        }
+        return text.append(fraction).toString();
+    }
+    
+    // Share of part in whole as a percentage, 0 when whole is 0
+    public static double percentage(long part, long whole) {
+        return whole == 0 ? 0 : part * 100.0 / whole;
+    }
+}
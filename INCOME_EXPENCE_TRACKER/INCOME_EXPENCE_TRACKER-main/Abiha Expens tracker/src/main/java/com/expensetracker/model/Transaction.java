@@ -2,39 +2,54 @@ package com.expensetracker.model;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.UUID;
 
+// Stored compactly: the id as two longs, the amount in paise and the date as an epoch day.
+// The ledger shares repeated description text between its rows; see DescriptionPool.
+// The public getters are unchanged.
 public class Transaction {
-    private String id;
+    private TransactionId id;
     private TransactionType type;
     private Category category;
-    private double amount;
+    private long amountInPaise;
     private String description;
-    private LocalDate date;
+    private int epochDay;
     
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd MMM yyyy");
+    private static final int NO_DATE = Integer.MIN_VALUE;
     
     public Transaction() {
-        this.id = UUID.randomUUID().toString();
-        this.date = LocalDate.now();
+        this.id = TransactionId.random();
+        setDate(LocalDate.now());
     }
     
     public Transaction(TransactionType type, Category category, double amount, String description, LocalDate date) {
-        this.id = UUID.randomUUID().toString();
+        this(TransactionId.random(), type, category, amount, description, date);
+    }
+    
+    public Transaction(String id, TransactionType type, Category category, double amount, String description, LocalDate date) {
+        this(TransactionId.of(id), type, category, amount, description, date);
+    }
+    
+    public Transaction(TransactionId id, TransactionType type, Category category, double amount, String description, LocalDate date) {
+        this.id = id;
         this.type = type;
         this.category = category;
-        this.amount = amount;
-        this.description = description;
-        this.date = date;
+        setAmount(amount);
+        setDescription(description);
+        setDate(date);
     }
     
     // Getters and Setters
     public String getId() {
-        return id;
+        return id == null ? null : id.toString();
     }
     
     public void setId(String id) {
-        this.id = id;
+        this.id = TransactionId.of(id);
+    }
+    
+    public TransactionId getTransactionId() {
+        return id;
     }
     
     public TransactionType getType() {
@@ -54,11 +69,19 @@ public class Transaction {
     }
     
     public double getAmount() {
-        return amount;
+        return amountInPaise / 100.0;
     }
     
     public void setAmount(double amount) {
-        this.amount = amount;
+        this.amountInPaise = Money.fromDouble(amount);
+    }
+    
+    public long getAmountInPaise() {
+        return amountInPaise;
+    }
+    
+    public void setAmountInPaise(long amountInPaise) {
+        this.amountInPaise = amountInPaise;
     }
     
     public String getDescription() {
@@ -70,27 +93,32 @@ public class Transaction {
     }
     
     public LocalDate getDate() {
-        return date;
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
     }
     
     public void setDate(LocalDate date) {
-        this.date = date;
+        this.epochDay = date == null ? NO_DATE : (int) date.toEpochDay();
+    }
+    
+    // Cheaper than getDate() for sorting and range checks, as no LocalDate is created
+    public int getEpochDay() {
+        return epochDay;
     }
     
     public String getFormattedDate() {
-        return date.format(DATE_FORMATTER);
+        return getDate().format(DATE_FORMATTER);
     }
     
     public String getFormattedAmount() {
-        return String.format("₹%.2f", amount);
+        return Money.format(amountInPaise);
     }
     
     @Override
     public String toString() {
-        return String.format("%s - %s: ₹%.2f (%s)", 
+        return String.format("%s - %s: %s (%s)", 
                             getFormattedDate(), 
                             category.getDisplayName(), 
-                            amount, 
+                            getFormattedAmount(), 
                             description);
     }
 }
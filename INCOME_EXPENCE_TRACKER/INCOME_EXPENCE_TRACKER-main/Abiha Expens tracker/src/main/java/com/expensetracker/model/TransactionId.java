@@ -0,0 +1,96 @@
+package com.expensetracker.model;
+
+import java.util.UUID;
+
+// Transaction identifier kept as two longs instead of a 36-character string. Ids that are not
+// canonical UUIDs (older or hand-edited data) are kept verbatim so they still round-trip.
+// Ids order like their text, so in-memory and SQL keyset pages agree.
+public final class TransactionId implements Comparable<TransactionId> {
+    private final long mostSignificantBits;
+    private final long leastSignificantBits;
+    private final String raw;
+    
+    private TransactionId(long mostSignificantBits, long leastSignificantBits, String raw) {
+        this.mostSignificantBits = mostSignificantBits;
+        this.leastSignificantBits = leastSignificantBits;
+        this.raw = raw;
+    }
+    
+    public static TransactionId random() {
+        UUID uuid = UUID.randomUUID();
+        return of(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+    
+    public static TransactionId of(long mostSignificantBits, long leastSignificantBits) {
+        return new TransactionId(mostSignificantBits, leastSignificantBits, null);
+    }
+    
+    public static TransactionId of(String id) {
+        if (id == null) {
+            return null;
+        }
+        // UUID.fromString accepts short non-canonical forms, so only trust round-trips
+        if (id.length() == 36) {
+            try {
+                UUID uuid = UUID.fromString(id);
+                if (uuid.toString().equals(id)) {
+                    return of(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+                }
+            } catch (IllegalArgumentException e) {
+                // not a UUID; keep the original text
+            }
+        }
+        return new TransactionId(0, 0, id);
+    }
+    
+    public boolean isUuid() {
+        return raw == null;
+    }
+    
+    public long getMostSignificantBits() {
+        return mostSignificantBits;
+    }
+    
+    public long getLeastSignificantBits() {
+        return leastSignificantBits;
+    }
+    
+    // Canonical UUID text sorts like the unsigned bits, so only raw ids need their text
+    @Override
+    public int compareTo(TransactionId other) {
+        if (raw == null && other.raw == null) {
+            int high = Long.compareUnsigned(mostSignificantBits, other.mostSignificantBits);
+            return high != 0 ? high : Long.compareUnsigned(leastSignificantBits, other.leastSignificantBits);
+        }
+        return toString().compareTo(other.toString());
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TransactionId)) {
+            return false;
+        }
+        TransactionId other = (TransactionId) o;
+        return raw == null
+                ? other.raw == null && mostSignificantBits == other.mostSignificantBits
+                        && leastSignificantBits == other.leastSignificantBits
+                : raw.equals(other.raw);
+    }
+    
+    @Override
+    public int hashCode() {
+        if (raw != null) {
+            return raw.hashCode();
+        }
+        long hilo = mostSignificantBits ^ leastSignificantBits;
+        return (int) (hilo >> 32) ^ (int) hilo;
+    }
+    
+    @Override
+    public String toString() {
+        return raw != null ? raw : new UUID(mostSignificantBits, leastSignificantBits).toString();
+    }
+}
@@ -1,7 +1,9 @@
 package com.expensetracker.ui;
 
-import com.expensetracker.data.DataManager;
+import com.expensetracker.data.Repositories;
+import com.expensetracker.data.TransactionRepository;
 import com.expensetracker.model.Category;
+import com.expensetracker.model.Money;
 import com.expensetracker.model.Transaction;
 import com.expensetracker.model.TransactionType;
 import javafx.geometry.Insets;
@@ -13,7 +15,7 @@ import java.time.LocalDate;
 
 public class AddTransactionView {
     private VBox view;
-    private DataManager dataManager;
+    private TransactionRepository dataManager;
     private DashboardController dashboardController;
     
     private ToggleGroup typeGroup;
@@ -23,7 +25,7 @@ public class AddTransactionView {
     private DatePicker datePicker;
     
     public AddTransactionView(DashboardController dashboardController) {
-        this.dataManager = DataManager.getInstance();
+        this.dataManager = Repositories.getDefault();
         this.dashboardController = dashboardController;
         initializeView();
     }
@@ -154,14 +156,19 @@ public class AddTransactionView {
             return;
         }
         
+        if (datePicker.getValue() == null) {
+            showAlert("Please select a date");
+            return;
+        }
+        
         if (amountField.getText().trim().isEmpty()) {
             showAlert("Please enter an amount");
             return;
         }
         
         try {
-            double amount = Double.parseDouble(amountField.getText().trim());
-            if (amount <= 0) {
+            long amountInPaise = Money.parse(amountField.getText());
+            if (amountInPaise <= 0) {
                 showAlert("Amount must be greater than 0");
                 return;
             }
@@ -174,7 +181,8 @@ public class AddTransactionView {
             }
             LocalDate date = datePicker.getValue();
             
-            Transaction transaction = new Transaction(type, category, amount, description, date);
+            Transaction transaction = new Transaction(type, category, 0, description, date);
+            transaction.setAmountInPaise(amountInPaise);
             dataManager.addTransaction(transaction);
             
             showSuccessAlert("Transaction added successfully!");
@@ -1,43 +1,107 @@
 package com.expensetracker.ui;
 
-import com.expensetracker.data.DataManager;
+import com.expensetracker.data.Repositories;
+import com.expensetracker.data.TransactionChange;
+import com.expensetracker.data.TransactionRepository;
 import com.expensetracker.model.Category;
+import com.expensetracker.model.CategoryTotals;
+import com.expensetracker.model.Money;
 import com.expensetracker.model.Transaction;
 import com.expensetracker.model.TransactionType;
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import javafx.animation.AnimationTimer;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.geometry.Side;
+import javafx.scene.Node;
 import javafx.scene.chart.*;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.scene.text.Text;
-import javafx.util.Duration;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public class DashboardController {
+    // Set -Dexpensetracker.dashboardTiming=true to log how long the dashboard takes to appear
+    private static final boolean LOG_TIMING = Boolean.getBoolean("expensetracker.dashboardTiming");
+    // Widget queries run here in parallel, so no widget waits on another's data
+    private static final ExecutorService WIDGET_EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())), runnable -> {
+                Thread thread = new Thread(runnable, "dashboard-widget");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private static final DateTimeFormatter CALENDAR_DATE = DateTimeFormatter.ofPattern("dd MMM yyyy");
+    private static final DateTimeFormatter CALENDAR_TIME = DateTimeFormatter.ofPattern("hh:mm:ss a");
+    private static final DateTimeFormatter CALENDAR_DAY = DateTimeFormatter.ofPattern("EEEE");
+    
     private BorderPane view;
-    private DataManager dataManager;
+    private TransactionRepository dataManager;
     private VBox contentArea;
+    private ViewRegistry views;
+    // The dashboard's nodes as last built; change events keep them current, so they are reused
+    private List<Node> dashboardContent;
     
     // Dashboard summary labels
     private Label balanceLabel;
     private Label incomeLabel;
     private Label expenseLabel;
     
+    // Each rebuild of the dashboard starts a new generation; results for older ones are dropped
+    private long dashboardGeneration;
+    private long dashboardStarted;
+    private int pendingWidgets;
+    // The latest load started for each widget. Reloads run in parallel and may finish out of
+    // order, so a result is only shown if no newer load of the same widget has started since.
+    private final Map<Object, Long> latestLoads = new HashMap<>();
+    private long loadSequence;
+    // Widget key for the summary card totals, whose labels are rebuilt with the dashboard
+    private final Object summaryTotals = new Object();
+    
+    // What change events update in place. Widgets showing a single aggregate re-run it; chart
+    // points are keyed by day or month, and each holds its exact total in paise as its extra value.
+    private final List<Runnable> widgetReloads = new ArrayList<>();
+    private final Map<LocalDate, XYChart.Data<String, Number>> dailyExpensePoints = new HashMap<>();
+    private final Map<LocalDate, XYChart.Data<String, Number>> dailyIncomePoints = new HashMap<>();
+    private final Map<YearMonth, XYChart.Data<String, Number>> monthlyExpensePoints = new HashMap<>();
+    private final Map<YearMonth, XYChart.Data<String, Number>> monthlyIncomePoints = new HashMap<>();
+    private final Map<Category, PieChart.Data> pieSlices = new EnumMap<>(Category.class);
+    private PieChart pieChart;
+    private CategoryTotals pieTotals;
+    private LocalDate pieStart;
+    private LocalDate pieEnd;
+    private Runnable unsubscribeChanges;
+    private Runnable unsubscribeDays;
+    
     public DashboardController() {
-        this.dataManager = DataManager.getInstance();
+        this.dataManager = Repositories.getDefault();
+        this.views = new ViewRegistry();
         initializeView();
+        unsubscribeChanges = FxChangeSubscriber.subscribe(dataManager, this::applyChanges, this::rebuildDashboard);
+        // Every chart and date-based widget covers a window ending today
+        unsubscribeDays = UiClock.get().onDayChange(today -> rebuildDashboard());
+    }
+    
+    // Stops this dashboard and every screen it built from listening for changes; called when the
+    // window closes, before the repository is closed
+    public void dispose() {
+        unsubscribeChanges.run();
+        unsubscribeDays.run();
+        // Late widget results are dropped like those of a superseded rebuild
+        dashboardGeneration++;
+        views.dispose();
     }
     
     private void initializeView() {
@@ -128,7 +192,24 @@ public class DashboardController {
         });
     }
     
+    // Lays out every widget at once with placeholders, then fills each in as its query
+    // finishes on the widget executor
     private void showDashboard() {
+        if (dashboardContent != null) {
+            contentArea.getChildren().setAll(dashboardContent);
+            return;
+        }
+        dashboardGeneration++;
+        dashboardStarted = System.nanoTime();
+        pendingWidgets = 0;
+        latestLoads.clear();
+        widgetReloads.clear();
+        dailyExpensePoints.clear();
+        dailyIncomePoints.clear();
+        monthlyExpensePoints.clear();
+        monthlyIncomePoints.clear();
+        pieSlices.clear();
+        pieTotals = null;
         contentArea.getChildren().clear();
         
         // Search Bar
@@ -158,7 +239,181 @@ public class DashboardController {
         chartsRow.getChildren().addAll(createCategoryPieChart(), createMonthlyBarChart());
         
         contentArea.getChildren().addAll(searchBar, addTransactionSection, categorySection, infoBoxesRow, summaryCards, recentTransactions, chartsTitle, lineChartBox, chartsRow);
+        dashboardContent = new ArrayList<>(contentArea.getChildren());
         updateDashboardValues();
+        if (LOG_TIMING) {
+            reportFirstPaint(dashboardGeneration);
+        }
+    }
+    
+    // Runs a widget's query off the FX thread; render is called on the FX thread with the result,
+    // unless the widget has been reloaded again meanwhile. widget is any object unique to it.
+    private <T> void loadWidget(Object widget, Supplier<T> query, Consumer<T> render) {
+        long generation = dashboardGeneration;
+        long sequence = ++loadSequence;
+        latestLoads.put(widget, sequence);
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() {
+                return query.get();
+            }
+        };
+        task.setOnSucceeded(e -> {
+            if (generation == dashboardGeneration) {
+                if (latestLoads.get(widget) == sequence) {
+                    render.accept(task.getValue());
+                }
+                widgetLoaded();
+            }
+        });
+        task.setOnFailed(e -> {
+            System.err.println("Error loading dashboard widget: " + task.getException().getMessage());
+            if (generation == dashboardGeneration) {
+                widgetLoaded();
+            }
+        });
+        pendingWidgets++;
+        WIDGET_EXECUTOR.execute(task);
+    }
+    
+    private void widgetLoaded() {
+        pendingWidgets--;
+        if (pendingWidgets == 0 && dashboardStarted != 0) {
+            if (LOG_TIMING) {
+                System.out.printf("Dashboard widgets loaded in %.1f ms%n", (System.nanoTime() - dashboardStarted) / 1_000_000.0);
+            }
+            dashboardStarted = 0;
+        }
+    }
+    
+    // Keeps the dashboard current as the ledger changes. Chart points and pie slices move by
+    // each change's before and after amounts; the other widgets re-run their one aggregate
+    // query, once per batch of changes.
+    private void applyChanges(List<TransactionChange> changes) {
+        if (dashboardContent == null) {
+            return;
+        }
+        if (dashboardStarted != 0) {
+            // Still loading: a change may land either side of a widget's query, so start over
+            rebuildDashboard();
+            return;
+        }
+        for (TransactionChange change : changes) {
+            if (change.getBefore() != null) {
+                applyToCharts(change.getBefore(), -1);
+            }
+            if (change.getAfter() != null) {
+                applyToCharts(change.getAfter(), 1);
+            }
+        }
+        renderPie();
+        updateDashboardValues();
+        widgetReloads.forEach(Runnable::run);
+    }
+    
+    // Rebuilds the dashboard now if it is showing, otherwise the next time it is shown
+    private void rebuildDashboard() {
+        if (dashboardContent == null) {
+            return;
+        }
+        boolean showing = contentArea.getChildren().equals(dashboardContent);
+        dashboardContent = null;
+        if (showing) {
+            showDashboard();
+        }
+    }
+    
+    // Adds (sign 1) or takes back (sign -1) one row's contribution to the charts
+    private void applyToCharts(Transaction transaction, int sign) {
+        long amount = sign * transaction.getAmountInPaise();
+        LocalDate date = transaction.getDate();
+        if (transaction.getType() == TransactionType.INCOME) {
+            adjust(dailyIncomePoints.get(date), amount);
+            adjust(monthlyIncomePoints.get(YearMonth.from(date)), amount);
+        } else if (transaction.getType() == TransactionType.EXPENSE) {
+            adjust(dailyExpensePoints.get(date), amount);
+            adjust(monthlyExpensePoints.get(YearMonth.from(date)), amount);
+            if (pieTotals != null && transaction.getCategory() != null
+                    && !date.isBefore(pieStart) && !date.isAfter(pieEnd)) {
+                pieTotals.add(transaction.getCategory(), amount, sign);
+            }
+        }
+    }
+    
+    private static XYChart.Data<String, Number> chartPoint(String label, long paise) {
+        return new XYChart.Data<>(label, Money.toDouble(paise), paise);
+    }
+    
+    private static void adjust(XYChart.Data<String, Number> point, long paise) {
+        if (point != null) {
+            long total = (Long) point.getExtraValue() + paise;
+            point.setExtraValue(total);
+            point.setYValue(Money.toDouble(total));
+        }
+    }
+    
+    // Brings the pie in line with pieTotals, updating existing slices in place
+    private void renderPie() {
+        if (pieTotals == null) {
+            return;
+        }
+        ObservableList<PieChart.Data> slices = pieChart.getData();
+        if (pieTotals.isEmpty()) {
+            pieSlices.clear();
+            slices.setAll(new PieChart.Data("No expenses yet", 1));
+            return;
+        }
+        // Drops the empty-chart placeholder and categories that no longer have expenses
+        pieSlices.keySet().removeIf(category -> pieTotals.getCount(category) == 0);
+        slices.retainAll(pieSlices.values());
+        for (Category category : pieTotals.byAmountDescending()) {
+            String label = String.format("%s (%.1f%%)", 
+                category.getEmoji() + " " + category.getDisplayName(), 
+                pieTotals.getPercentage(category));
+            double value = Money.toDouble(pieTotals.get(category));
+            PieChart.Data slice = pieSlices.get(category);
+            if (slice == null) {
+                slice = new PieChart.Data(label, value);
+                pieSlices.put(category, slice);
+                slices.add(slice);
+            } else {
+                slice.setName(label);
+                slice.setPieValue(value);
+            }
+        }
+    }
+    
+    // The first pulse after the placeholders are laid out is the frame that paints them
+    private void reportFirstPaint(long generation) {
+        long started = dashboardStarted;
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                stop();
+                if (generation == dashboardGeneration) {
+                    System.out.printf("Dashboard first paint in %.1f ms%n", (System.nanoTime() - started) / 1_000_000.0);
+                }
+            }
+        }.start();
+    }
+    
+    // Placeholder look for a value that is still being computed; cleared by showValue
+    private static void showLoading(Label label) {
+        label.setText("");
+        label.getStyleClass().add("skeleton");
+    }
+    
+    private static void showValue(Label label, String text) {
+        label.getStyleClass().remove("skeleton");
+        label.setText(text);
+    }
+    
+    // Placeholder the size of a chart, swapped for the chart once its data is in
+    private static Region createChartSkeleton() {
+        Region skeleton = new Region();
+        skeleton.getStyleClass().add("skeleton");
+        skeleton.setPrefHeight(350);
+        return skeleton;
     }
     
     private HBox createSearchBar() {
@@ -251,7 +506,7 @@ public class DashboardController {
         // Add button action
         addBtn.setOnAction(e -> {
             try {
-                double amount = Double.parseDouble(amountField.getText());
+                long amountInPaise = Money.parse(amountField.getText());
                 Category category = categoryCombo.getValue();
                 String description = descField.getText().trim();
                 LocalDate date = datePicker.getValue();
@@ -261,12 +516,18 @@ public class DashboardController {
                     return;
                 }
                 
+                if (date == null) {
+                    showAlert("Please select a date");
+                    return;
+                }
+                
                 if (description.isEmpty()) {
                     description = category.getDisplayName();
                 }
                 
                 TransactionType type = incomeRadio.isSelected() ? TransactionType.INCOME : TransactionType.EXPENSE;
-                Transaction transaction = new Transaction(type, category, amount, description, date);
+                Transaction transaction = new Transaction(type, category, 0, description, date);
+                transaction.setAmountInPaise(amountInPaise);
                 dataManager.addTransaction(transaction);
                 
                 // Clear form
@@ -275,9 +536,7 @@ public class DashboardController {
                 descField.clear();
                 datePicker.setValue(LocalDate.now());
                 expenseRadio.setSelected(true);
-                
-                // Refresh dashboard
-                refreshCurrentView();
+                // The dashboard picks the new row up from the change stream
                 
             } catch (NumberFormatException ex) {
                 showAlert("Please enter a valid amount");
@@ -365,21 +624,18 @@ public class DashboardController {
         titleLabel.getStyleClass().add("info-box-title");
         titleLabel.setStyle("-fx-text-fill: white;");
         
+        Label valueLabel = new Label();
+        valueLabel.getStyleClass().add("info-box-value");
+        valueLabel.setStyle("-fx-text-fill: white; -fx-font-size: 28px; -fx-font-weight: bold;");
+        showLoading(valueLabel);
+        
         // Calculate upcoming expenses (next 7 days)
         LocalDate today = LocalDate.now();
         LocalDate nextWeek = today.plusDays(7);
-        List<Transaction> upcomingTransactions = dataManager.getTransactionsByDateRange(today, nextWeek)
-            .stream()
-            .filter(t -> t.getType() == TransactionType.EXPENSE)
-            .collect(Collectors.toList());
-        
-        double upcomingTotal = upcomingTransactions.stream()
-            .mapToDouble(Transaction::getAmount)
-            .sum();
-        
-        Label valueLabel = new Label(String.format("₹%.2f", upcomingTotal));
-        valueLabel.getStyleClass().add("info-box-value");
-        valueLabel.setStyle("-fx-text-fill: white; -fx-font-size: 28px; -fx-font-weight: bold;");
+        Runnable reload = () -> loadWidget(valueLabel, () -> dataManager.getTotal(TransactionType.EXPENSE, today, nextWeek),
+                upcomingTotal -> showValue(valueLabel, Money.format(upcomingTotal)));
+        reload.run();
+        widgetReloads.add(reload);
         
         Label subLabel = new Label("Next 7 days");
         subLabel.setStyle("-fx-text-fill: rgba(255, 255, 255, 0.8); -fx-font-size: 12px;");
@@ -403,22 +659,18 @@ public class DashboardController {
         titleLabel.getStyleClass().add("info-box-title");
         titleLabel.setStyle("-fx-text-fill: white;");
         
+        Label valueLabel = new Label();
+        valueLabel.getStyleClass().add("info-box-value");
+        valueLabel.setStyle("-fx-text-fill: white; -fx-font-size: 28px; -fx-font-weight: bold;");
+        showLoading(valueLabel);
+        
         // Calculate average daily spending for last 30 days
         LocalDate today = LocalDate.now();
         LocalDate thirtyDaysAgo = today.minusDays(30);
-        List<Transaction> recentExpenses = dataManager.getTransactionsByDateRange(thirtyDaysAgo, today)
-            .stream()
-            .filter(t -> t.getType() == TransactionType.EXPENSE)
-            .collect(Collectors.toList());
-        
-        double totalExpense = recentExpenses.stream()
-            .mapToDouble(Transaction::getAmount)
-            .sum();
-        double avgDaily = totalExpense / 30.0;
-        
-        Label valueLabel = new Label(String.format("₹%.2f", avgDaily));
-        valueLabel.getStyleClass().add("info-box-value");
-        valueLabel.setStyle("-fx-text-fill: white; -fx-font-size: 28px; -fx-font-weight: bold;");
+        Runnable reload = () -> loadWidget(valueLabel, () -> dataManager.getTotal(TransactionType.EXPENSE, thirtyDaysAgo, today),
+                totalExpense -> showValue(valueLabel, Money.format(Math.round(totalExpense / 30.0))));
+        reload.run();
+        widgetReloads.add(reload);
         
         Label subLabel = new Label("Last 30 days");
         subLabel.setStyle("-fx-text-fill: rgba(255, 255, 255, 0.8); -fx-font-size: 12px;");
@@ -450,37 +702,25 @@ public class DashboardController {
         Label dayLabel = new Label();
         dayLabel.setStyle("-fx-text-fill: rgba(255, 255, 255, 0.8); -fx-font-size: 14px;");
         
-        // Update time every second
-        Timeline timeline = new Timeline(new KeyFrame(Duration.seconds(1), event -> {
-            LocalDateTime now = LocalDateTime.now();
-            dateLabel.setText(now.format(DateTimeFormatter.ofPattern("dd MMM yyyy")));
-            timeLabel.setText(now.format(DateTimeFormatter.ofPattern("hh:mm:ss a")));
-            dayLabel.setText(now.format(DateTimeFormatter.ofPattern("EEEE")));
-        }));
-        timeline.setCycleCount(Animation.INDEFINITE);
-        timeline.play();
-        
-        // Initial update
-        LocalDateTime now = LocalDateTime.now();
-        dateLabel.setText(now.format(DateTimeFormatter.ofPattern("dd MMM yyyy")));
-        timeLabel.setText(now.format(DateTimeFormatter.ofPattern("hh:mm:ss a")));
-        dayLabel.setText(now.format(DateTimeFormatter.ofPattern("EEEE")));
-        
         box.getChildren().addAll(icon, dateLabel, timeLabel, dayLabel);
+        
+        // Update time every second while the dashboard is on screen
+        UiClock.get().onTickWhileShowing(box, now -> {
+            dateLabel.setText(now.format(CALENDAR_DATE));
+            timeLabel.setText(now.format(CALENDAR_TIME));
+            dayLabel.setText(now.format(CALENDAR_DAY));
+        });
         return box;
     }
     
     private void showSearchResults(String query) {
-        HistoryView historyView = new HistoryView(this);
-        contentArea.getChildren().clear();
-        contentArea.getChildren().add(historyView.getView());
-        // The HistoryView will handle the search internally
+        HistoryView historyView = historyView();
+        historyView.search(query);
+        contentArea.getChildren().setAll(historyView.getView());
     }
     
     private void showCategoryTransactions(Category category) {
-        HistoryView historyView = new HistoryView(this);
-        contentArea.getChildren().clear();
-        contentArea.getChildren().add(historyView.getView());
+        contentArea.getChildren().setAll(historyView().getView());
     }
     
     private HBox createSummaryCards() {
@@ -488,16 +728,19 @@ public class DashboardController {
         cardContainer.setAlignment(Pos.CENTER);
         
         // Balance Card
-        VBox balanceCard = createSummaryCard("Total Balance", "₹0.00", "balance-card");
+        VBox balanceCard = createSummaryCard("Total Balance", "", "balance-card");
         balanceLabel = (Label) balanceCard.getChildren().get(1);
+        showLoading(balanceLabel);
         
         // Income Card
-        VBox incomeCard = createSummaryCard("Total Income", "₹0.00", "income-card");
+        VBox incomeCard = createSummaryCard("Total Income", "", "income-card");
         incomeLabel = (Label) incomeCard.getChildren().get(1);
+        showLoading(incomeLabel);
         
         // Expense Card
-        VBox expenseCard = createSummaryCard("Total Expenses", "₹0.00", "expense-card");
+        VBox expenseCard = createSummaryCard("Total Expenses", "", "expense-card");
         expenseLabel = (Label) expenseCard.getChildren().get(1);
+        showLoading(expenseLabel);
         
         cardContainer.getChildren().addAll(balanceCard, incomeCard, expenseCard);
         return cardContainer;
@@ -529,20 +772,27 @@ public class DashboardController {
         VBox transactionsList = new VBox(10);
         transactionsList.getStyleClass().add("transactions-list");
         
-        List<Transaction> recentTransactions = dataManager.getAllTransactions();
-        if (recentTransactions.isEmpty()) {
-            Label emptyLabel = new Label("No transactions yet. Add your first transaction!");
-            emptyLabel.getStyleClass().add("empty-message");
-            transactionsList.getChildren().add(emptyLabel);
-        } else {
-            // Show last 5 transactions
-            int count = Math.min(5, recentTransactions.size());
-            for (int i = recentTransactions.size() - 1; i >= recentTransactions.size() - count; i--) {
-                Transaction t = recentTransactions.get(i);
-                HBox transactionItem = createTransactionItem(t);
-                transactionsList.getChildren().add(transactionItem);
+        Region skeleton = new Region();
+        skeleton.getStyleClass().add("skeleton");
+        skeleton.setPrefHeight(120);
+        transactionsList.getChildren().add(skeleton);
+        
+        // Show the 5 latest transactions by date, read straight from the date index
+        Runnable reload = () -> loadWidget(transactionsList, () -> dataManager.getRecent(5, LocalDate.MIN, LocalDate.MAX), recentTransactions -> {
+            transactionsList.getChildren().clear();
+            if (recentTransactions.isEmpty()) {
+                Label emptyLabel = new Label("No transactions yet. Add your first transaction!");
+                emptyLabel.getStyleClass().add("empty-message");
+                transactionsList.getChildren().add(emptyLabel);
+            } else {
+                for (Transaction t : recentTransactions) {
+                    HBox transactionItem = createTransactionItem(t);
+                    transactionsList.getChildren().add(transactionItem);
+                }
             }
-        }
+        });
+        reload.run();
+        widgetReloads.add(reload);
         
         section.getChildren().addAll(sectionTitle, transactionsList);
         return section;
@@ -585,54 +835,52 @@ public class DashboardController {
         return item;
     }
     
+    // Screens are built on first visit and kept; see ViewRegistry
     private void showAddTransaction() {
-        AddTransactionView addView = new AddTransactionView(this);
-        contentArea.getChildren().clear();
-        contentArea.getChildren().add(addView.getView());
+        AddTransactionView addView = views.get(AddTransactionView.class, () -> new AddTransactionView(this));
+        contentArea.getChildren().setAll(addView.getView());
     }
     
     private void showHistory() {
-        HistoryView historyView = new HistoryView(this);
-        contentArea.getChildren().clear();
-        contentArea.getChildren().add(historyView.getView());
+        contentArea.getChildren().setAll(historyView().getView());
+    }
+    
+    private HistoryView historyView() {
+        return views.get(HistoryView.class, HistoryView::new, HistoryView::dispose);
     }
     
     private void showReports() {
-        ReportsView reportsView = new ReportsView();
-        contentArea.getChildren().clear();
-        contentArea.getChildren().add(reportsView.getView());
+        ReportsView reportsView = views.get(ReportsView.class, ReportsView::new, ReportsView::dispose);
+        contentArea.getChildren().setAll(reportsView.getView());
     }
     
     private void showBudgetTips() {
-        BudgetTipsView tipsView = new BudgetTipsView();
-        contentArea.getChildren().clear();
-        contentArea.getChildren().add(tipsView.getView());
+        BudgetTipsView tipsView = views.get(BudgetTipsView.class, BudgetTipsView::new);
+        contentArea.getChildren().setAll(tipsView.getView());
     }
     
     private void showFinancialHelp() {
-        FinancialHelpView helpView = new FinancialHelpView();
-        contentArea.getChildren().clear();
-        contentArea.getChildren().add(helpView.getView());
+        FinancialHelpView helpView = views.get(FinancialHelpView.class, FinancialHelpView::new);
+        contentArea.getChildren().setAll(helpView.getView());
     }
     
     public void updateDashboardValues() {
-        double balance = dataManager.getBalance();
-        double income = dataManager.getTotalIncome();
-        double expense = dataManager.getTotalExpense();
-        
-        if (balanceLabel != null) {
-            balanceLabel.setText(String.format("₹%.2f", balance));
-        }
-        if (incomeLabel != null) {
-            incomeLabel.setText(String.format("₹%.2f", income));
-        }
-        if (expenseLabel != null) {
-            expenseLabel.setText(String.format("₹%.2f", expense));
-        }
+        loadWidget(summaryTotals, () -> new long[] {dataManager.getBalance(), dataManager.getTotalIncome(), dataManager.getTotalExpense()},
+                totals -> {
+                    if (balanceLabel != null) {
+                        showValue(balanceLabel, Money.format(totals[0]));
+                    }
+                    if (incomeLabel != null) {
+                        showValue(incomeLabel, Money.format(totals[1]));
+                    }
+                    if (expenseLabel != null) {
+                        showValue(expenseLabel, Money.format(totals[2]));
+                    }
+                });
     }
     
     public void refreshCurrentView() {
-        // Refresh the dashboard to show updated data
+        // Back to the dashboard, which change events have kept up to date
         showDashboard();
     }
     
@@ -662,35 +910,31 @@ public class DashboardController {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(29);
         
-        Map<LocalDate, Double> dailyExpenses = new HashMap<>();
-        Map<LocalDate, Double> dailyIncome = new HashMap<>();
-        
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            dailyExpenses.put(date, 0.0);
-            dailyIncome.put(date, 0.0);
-        }
-        
-        List<Transaction> transactions = dataManager.getTransactionsByDateRange(startDate, endDate);
-        for (Transaction t : transactions) {
-            if (t.getType() == TransactionType.EXPENSE) {
-                dailyExpenses.merge(t.getDate(), t.getAmount(), Double::sum);
-            } else {
-                dailyIncome.merge(t.getDate(), t.getAmount(), Double::sum);
-            }
-        }
-        
-        int count = 0;
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            if (count % 3 == 0 || date.equals(endDate)) {
-                String dateStr = date.format(DateTimeFormatter.ofPattern("dd MMM"));
-                expenseSeries.getData().add(new XYChart.Data<>(dateStr, dailyExpenses.get(date)));
-                incomeSeries.getData().add(new XYChart.Data<>(dateStr, dailyIncome.get(date)));
+        container.getChildren().addAll(chartTitle, createChartSkeleton());
+        loadWidget(container, () -> new long[][] {
+            dataManager.getDailyTotals(TransactionType.EXPENSE, startDate, endDate),
+            dataManager.getDailyTotals(TransactionType.INCOME, startDate, endDate)
+        }, daily -> {
+            long[] dailyExpenses = daily[0];
+            long[] dailyIncome = daily[1];
+            
+            int count = 0;
+            for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+                if (count % 3 == 0 || date.equals(endDate)) {
+                    String dateStr = date.format(DateTimeFormatter.ofPattern("dd MMM"));
+                    XYChart.Data<String, Number> expensePoint = chartPoint(dateStr, dailyExpenses[count]);
+                    XYChart.Data<String, Number> incomePoint = chartPoint(dateStr, dailyIncome[count]);
+                    dailyExpensePoints.put(date, expensePoint);
+                    dailyIncomePoints.put(date, incomePoint);
+                    expenseSeries.getData().add(expensePoint);
+                    incomeSeries.getData().add(incomePoint);
+                }
+                count++;
             }
-            count++;
-        }
-        
-        lineChart.getData().addAll(expenseSeries, incomeSeries);
-        container.getChildren().addAll(chartTitle, lineChart);
+            
+            lineChart.getData().addAll(expenseSeries, incomeSeries);
+            container.getChildren().set(1, lineChart);
+        });
         return container;
     }
     
@@ -703,7 +947,7 @@ public class DashboardController {
         Label chartTitle = new Label("🍰 Expense Breakdown");
         chartTitle.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-text-fill: #2D3748;");
         
-        PieChart pieChart = new PieChart();
+        pieChart = new PieChart();
         pieChart.setLegendSide(Side.RIGHT);
         pieChart.setPrefHeight(350);
         pieChart.setLabelsVisible(true);
@@ -711,29 +955,15 @@ public class DashboardController {
         
         LocalDate now = LocalDate.now();
         LocalDate startOfMonth = now.withDayOfMonth(1);
-        List<Transaction> monthTransactions = dataManager.getTransactionsByDateRange(startOfMonth, now);
-        
-        Map<Category, Double> categoryTotals = new HashMap<>();
-        monthTransactions.stream()
-            .filter(t -> t.getType() == TransactionType.EXPENSE)
-            .forEach(t -> categoryTotals.merge(t.getCategory(), t.getAmount(), Double::sum));
-        
-        if (!categoryTotals.isEmpty()) {
-            double total = categoryTotals.values().stream().mapToDouble(Double::doubleValue).sum();
-            categoryTotals.entrySet().stream()
-                .sorted((e1, e2) -> Double.compare(e2.getValue(), e1.getValue()))
-                .forEach(entry -> {
-                    double percentage = (entry.getValue() / total) * 100;
-                    String label = String.format("%s (%.1f%%)", 
-                        entry.getKey().getEmoji() + " " + entry.getKey().getDisplayName(), 
-                        percentage);
-                    pieChart.getData().add(new PieChart.Data(label, entry.getValue()));
-                });
-        } else {
-            pieChart.getData().add(new PieChart.Data("No expenses yet", 1));
-        }
         
-        container.getChildren().addAll(chartTitle, pieChart);
+        container.getChildren().addAll(chartTitle, createChartSkeleton());
+        pieStart = startOfMonth;
+        pieEnd = now;
+        loadWidget(container, () -> dataManager.getCategoryTotals(TransactionType.EXPENSE, startOfMonth, now), categoryTotals -> {
+            pieTotals = categoryTotals;
+            renderPie();
+            container.getChildren().set(1, pieChart);
+        });
         return container;
     }
     
@@ -765,30 +995,28 @@ public class DashboardController {
         
         YearMonth currentMonth = YearMonth.now();
         
-        for (int i = 5; i >= 0; i--) {
-            YearMonth month = currentMonth.minusMonths(i);
-            LocalDate startDate = month.atDay(1);
-            LocalDate endDate = month.atEndOfMonth();
-            
-            List<Transaction> monthTransactions = dataManager.getTransactionsByDateRange(startDate, endDate);
+        container.getChildren().addAll(chartTitle, createChartSkeleton());
+        loadWidget(container, () -> new long[][] {
+            dataManager.getMonthlyTotals(TransactionType.EXPENSE, currentMonth.minusMonths(5), currentMonth),
+            dataManager.getMonthlyTotals(TransactionType.INCOME, currentMonth.minusMonths(5), currentMonth)
+        }, monthly -> {
+            long[] expenseByMonth = monthly[0];
+            long[] incomeByMonth = monthly[1];
             
-            double monthExpense = monthTransactions.stream()
-                .filter(t -> t.getType() == TransactionType.EXPENSE)
-                .mapToDouble(Transaction::getAmount)
-                .sum();
-            
-            double monthIncome = monthTransactions.stream()
-                .filter(t -> t.getType() == TransactionType.INCOME)
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+            for (int i = 5; i >= 0; i--) {
+                YearMonth month = currentMonth.minusMonths(i);
+                String monthLabel = month.format(DateTimeFormatter.ofPattern("MMM yyyy"));
+                XYChart.Data<String, Number> expensePoint = chartPoint(monthLabel, expenseByMonth[5 - i]);
+                XYChart.Data<String, Number> incomePoint = chartPoint(monthLabel, incomeByMonth[5 - i]);
+                monthlyExpensePoints.put(month, expensePoint);
+                monthlyIncomePoints.put(month, incomePoint);
+                expenseSeries.getData().add(expensePoint);
+                incomeSeries.getData().add(incomePoint);
+            }
             
-            String monthLabel = month.format(DateTimeFormatter.ofPattern("MMM yyyy"));
-            expenseSeries.getData().add(new XYChart.Data<>(monthLabel, monthExpense));
-            incomeSeries.getData().add(new XYChart.Data<>(monthLabel, monthIncome));
-        }
-        
-        barChart.getData().addAll(incomeSeries, expenseSeries);
-        container.getChildren().addAll(chartTitle, barChart);
+            barChart.getData().addAll(incomeSeries, expenseSeries);
+            container.getChildren().set(1, barChart);
+        });
         return container;
     }
     
@@ -0,0 +1,120 @@
+package com.expensetracker.ui;
+
+import com.expensetracker.data.TransactionChange;
+import com.expensetracker.data.TransactionRepository;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Hands repository changes to a view on the FX thread. Changes arriving while a hand-off is
+// already queued join it, so a burst of changes costs one runLater and one UI update.
+// Demand is renewed as soon as a change is queued, since the FX thread is itself a writer and
+// must never wait on its own backlog. The backlog is capped instead: past MAX_PENDING changes
+// the deltas are dropped and the view reloads once from the repository, which already holds
+// every change it was sent. Subscribing returns the matching unsubscribe action, as UiClock does.
+final class FxChangeSubscriber implements Flow.Subscriber<TransactionChange> {
+    private static final int MAX_PENDING = 1024;
+    
+    private final Consumer<List<TransactionChange>> onChanges;
+    private final Runnable onOverflow;
+    private final Queue<TransactionChange> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private volatile boolean overflowed;
+    private volatile boolean cancelled;
+    private volatile Flow.Subscription subscription;
+    
+    private FxChangeSubscriber(Consumer<List<TransactionChange>> onChanges, Runnable onOverflow) {
+        this.onChanges = onChanges;
+        this.onOverflow = onOverflow;
+    }
+    
+    // onOverflow reloads everything the view shows, in place of the changes it missed
+    static Runnable subscribe(TransactionRepository repository, Consumer<List<TransactionChange>> onChanges,
+            Runnable onOverflow) {
+        FxChangeSubscriber subscriber = new FxChangeSubscriber(onChanges, onOverflow);
+        repository.changes().subscribe(subscriber);
+        return subscriber::cancel;
+    }
+    
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        // Cancelled before the publisher got round to subscribing us
+        if (cancelled) {
+            subscription.cancel();
+        } else {
+            subscription.request(1);
+        }
+    }
+    
+    @Override
+    public void onNext(TransactionChange change) {
+        if (cancelled) {
+            return;
+        }
+        if (!overflowed) {
+            if (pendingCount.incrementAndGet() > MAX_PENDING) {
+                overflowed = true;
+                pending.clear();
+            } else {
+                pending.add(change);
+            }
+        }
+        if (drainScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::drain);
+        }
+        subscription.request(1);
+    }
+    
+    @Override
+    public void onError(Throwable throwable) {
+        System.err.println("Error receiving transaction changes: " + throwable.getMessage());
+    }
+    
+    @Override
+    public void onComplete() {
+    }
+    
+    private void cancel() {
+        cancelled = true;
+        pending.clear();
+        Flow.Subscription current = subscription;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+    
+    private void drain() {
+        // Cleared first, so a change queued from here on schedules another drain
+        drainScheduled.set(false);
+        if (cancelled) {
+            return;
+        }
+        if (overflowed) {
+            // Changes queued after the clear are applied on top of the reload. It may already
+            // include them; every view finds rows by id, so applying them twice is harmless.
+            overflowed = false;
+            pending.clear();
+            pendingCount.set(0);
+            onOverflow.run();
+            return;
+        }
+        List<TransactionChange> changes = new ArrayList<>();
+        TransactionChange change;
+        while ((change = pending.poll()) != null) {
+            changes.add(change);
+        }
+        pendingCount.addAndGet(-changes.size());
+        if (!changes.isEmpty()) {
+            onChanges.accept(changes);
+        }
+    }
+}
@@ -1,30 +1,70 @@
 package com.expensetracker.ui;
 
-import com.expensetracker.data.DataManager;
+import com.expensetracker.data.PageCursor;
+import com.expensetracker.data.Repositories;
+import com.expensetracker.data.TransactionChange;
+import com.expensetracker.data.TransactionRepository;
 import com.expensetracker.model.Transaction;
 import com.expensetracker.model.TransactionType;
+import javafx.animation.PauseTransition;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
+import javafx.util.Duration;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class HistoryView {
+    // Typing restarts this delay, so a query only runs once input pauses
+    private static final Duration SEARCH_DELAY = Duration.millis(150);
+    // Rows fetched per keyset page, and how close to the end of them scrolling fetches the next
+    private static final int PAGE_SIZE = 100;
+    private static final int PREFETCH_ROWS = 20;
+    // One thread, so a superseded query that has not started yet is simply skipped
+    private static final ExecutorService SEARCH_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "history-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
     private VBox view;
-    private DataManager dataManager;
-    private DashboardController dashboardController;
-    private VBox transactionsList;
+    private TransactionRepository dataManager;
+    private ListView<Transaction> transactionsList;
+    private Label emptyLabel;
     private TextField searchField;
     private ComboBox<String> filterComboBox;
+    private Label statusLabel;
+    private PauseTransition searchDelay;
+    private Task<List<Transaction>> currentLoad;
+    // Set while browsing without a query and more pages remain
+    private PageCursor nextPage;
+    // Whether the list holds keyset pages rather than search results, and whether the load in
+    // flight, if any, is appending the next page
+    private boolean showingPages;
+    private boolean appending;
+    private Runnable unsubscribe;
     
-    public HistoryView(DashboardController dashboardController) {
-        this.dataManager = DataManager.getInstance();
-        this.dashboardController = dashboardController;
+    public HistoryView() {
+        this.dataManager = Repositories.getDefault();
         initializeView();
+        unsubscribe = FxChangeSubscriber.subscribe(dataManager, this::applyChanges, this::filterTransactions);
+    }
+    
+    // Stops listening for ledger changes and drops any load in flight; the view is not used again
+    public void dispose() {
+        unsubscribe.run();
+        searchDelay.stop();
+        if (currentLoad != null) {
+            currentLoad.cancel();
+        }
     }
     
     private void initializeView() {
@@ -39,11 +79,14 @@ public class HistoryView {
         HBox filterBar = new HBox(15);
         filterBar.setAlignment(Pos.CENTER_LEFT);
         
+        searchDelay = new PauseTransition(SEARCH_DELAY);
+        searchDelay.setOnFinished(e -> filterTransactions());
+        
         searchField = new TextField();
         searchField.setPromptText("🔍 Search transactions...");
         searchField.getStyleClass().add("search-field");
         searchField.setPrefWidth(300);
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> filterTransactions());
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> searchDelay.playFromStart());
         
         filterComboBox = new ComboBox<>();
         filterComboBox.getItems().addAll("All", "Income", "Expenses");
@@ -55,130 +98,195 @@ public class HistoryView {
         refreshButton.getStyleClass().add("secondary-button");
         refreshButton.setOnAction(e -> loadTransactions());
         
-        filterBar.getChildren().addAll(searchField, filterComboBox, refreshButton);
+        statusLabel = new Label();
+        statusLabel.getStyleClass().add("search-status");
         
-        // Transactions list
-        transactionsList = new VBox(10);
-        transactionsList.getStyleClass().add("history-list");
+        filterBar.getChildren().addAll(searchField, filterComboBox, refreshButton, statusLabel);
+        
+        // Transactions list: only the visible rows have cells, and cells are reused while scrolling
+        emptyLabel = new Label();
+        emptyLabel.getStyleClass().add("empty-message");
         
-        ScrollPane scrollPane = new ScrollPane(transactionsList);
-        scrollPane.setFitToWidth(true);
-        scrollPane.getStyleClass().add("history-scroll");
-        VBox.setVgrow(scrollPane, Priority.ALWAYS);
+        transactionsList = new ListView<>();
+        transactionsList.getStyleClass().add("history-list");
+        transactionsList.setPlaceholder(emptyLabel);
+        transactionsList.setCellFactory(list -> new TransactionCell());
+        VBox.setVgrow(transactionsList, Priority.ALWAYS);
         
-        view.getChildren().addAll(title, filterBar, scrollPane);
+        view.getChildren().addAll(title, filterBar, transactionsList);
         
         loadTransactions();
     }
     
     private void loadTransactions() {
-        transactionsList.getChildren().clear();
-        List<Transaction> transactions = dataManager.getAllTransactions();
-        
-        if (transactions.isEmpty()) {
-            Label emptyLabel = new Label("No transactions found. Start by adding your first transaction!");
-            emptyLabel.getStyleClass().add("empty-message");
-            transactionsList.getChildren().add(emptyLabel);
-        } else {
-            // Show in reverse order (newest first)
-            for (int i = transactions.size() - 1; i >= 0; i--) {
-                Transaction t = transactions.get(i);
-                HBox item = createTransactionItem(t);
-                transactionsList.getChildren().add(item);
-            }
-        }
+        filterTransactions();
     }
     
+    // Shows the results for a query entered elsewhere, e.g. the dashboard search bar
+    public void search(String query) {
+        searchField.setText(query);
+        filterTransactions();
+    }
+    
+    // Runs the query off the FX thread. Starting a new one cancels the previous one, and
+    // only the latest query's results are ever shown. Without a query the list is browsed
+    // newest first one keyset page at a time; a query's matches are shown in the same order.
     private void filterTransactions() {
-        String searchText = searchField.getText().toLowerCase();
-        String filter = filterComboBox.getValue();
+        searchDelay.stop();
+        if (currentLoad != null) {
+            currentLoad.cancel();
+        }
+        nextPage = null;
         
-        List<Transaction> allTransactions = dataManager.getAllTransactions();
-        List<Transaction> filtered = allTransactions.stream()
-            .filter(t -> {
-                // Filter by type
-                if ("Income".equals(filter) && t.getType() != TransactionType.INCOME) {
-                    return false;
-                }
-                if ("Expenses".equals(filter) && t.getType() != TransactionType.EXPENSE) {
-                    return false;
+        String query = searchField.getText();
+        TransactionType type = selectedType();
+        boolean browsing = query.trim().isEmpty();
+        showingPages = browsing;
+        appending = false;
+        emptyLabel.setText(browsing && type == null
+                ? "No transactions found. Start by adding your first transaction!"
+                : "No transactions match your search.");
+        long started = System.nanoTime();
+        
+        Task<List<Transaction>> load = new Task<>() {
+            @Override
+            protected List<Transaction> call() {
+                if (browsing) {
+                    return dataManager.getPage(type, null, PAGE_SIZE);
                 }
-                
-                // Filter by search text
-                if (!searchText.isEmpty()) {
-                    return t.getDescription().toLowerCase().contains(searchText) ||
-                           t.getCategory().getDisplayName().toLowerCase().contains(searchText) ||
-                           t.getFormattedAmount().toLowerCase().contains(searchText);
+                // The repository's search index narrows by text; only the matches are checked for type
+                List<Transaction> matches = new ArrayList<>();
+                for (Transaction t : dataManager.search(query)) {
+                    if (isCancelled()) {
+                        break;
+                    }
+                    if (type == null || t.getType() == type) {
+                        matches.add(t);
+                    }
                 }
-                
-                return true;
-            })
-            .collect(Collectors.toList());
-        
-        transactionsList.getChildren().clear();
-        
-        if (filtered.isEmpty()) {
-            Label emptyLabel = new Label("No transactions match your search.");
-            emptyLabel.getStyleClass().add("empty-message");
-            transactionsList.getChildren().add(emptyLabel);
-        } else {
-            for (int i = filtered.size() - 1; i >= 0; i--) {
-                Transaction t = filtered.get(i);
-                HBox item = createTransactionItem(t);
-                transactionsList.getChildren().add(item);
+                matches.sort(PageCursor.NEWEST_FIRST);
+                return matches;
             }
-        }
+        };
+        load.setOnSucceeded(e -> {
+            if (load == currentLoad) {
+                List<Transaction> rows = load.getValue();
+                transactionsList.getItems().setAll(rows);
+                transactionsList.scrollTo(0);
+                rememberNextPage(browsing, rows);
+                statusLabel.setText(String.format("%d %s in %.1f ms", rows.size(),
+                        browsing ? "loaded" : "results", (System.nanoTime() - started) / 1_000_000.0));
+            }
+        });
+        start(load);
     }
     
-    private HBox createTransactionItem(Transaction transaction) {
-        HBox item = new HBox(15);
-        item.getStyleClass().add("history-item");
-        item.setPadding(new Insets(15));
-        item.setAlignment(Pos.CENTER_LEFT);
-        
-        // Category icon
-        Label iconLabel = new Label(transaction.getCategory().getEmoji());
-        iconLabel.getStyleClass().add("transaction-icon");
-        iconLabel.setStyle("-fx-background-color: " + transaction.getCategory().getColor() + ";");
-        
-        // Transaction details
-        VBox details = new VBox(5);
-        Label categoryLabel = new Label(transaction.getCategory().getDisplayName());
-        categoryLabel.getStyleClass().add("transaction-category");
-        Label descLabel = new Label(transaction.getDescription());
-        descLabel.getStyleClass().add("transaction-description");
-        details.getChildren().addAll(categoryLabel, descLabel);
-        HBox.setHgrow(details, Priority.ALWAYS);
-        
-        // Type badge
-        Label typeLabel = new Label(transaction.getType().getDisplayName());
-        typeLabel.getStyleClass().add("type-badge");
-        if (transaction.getType() == TransactionType.INCOME) {
-            typeLabel.getStyleClass().add("income-badge");
-        } else {
-            typeLabel.getStyleClass().add("expense-badge");
+    // Appends the next keyset page once scrolling nears the end of the loaded rows
+    private void loadNextPage() {
+        if (nextPage == null || (currentLoad != null && !currentLoad.isDone())) {
+            return;
         }
+        TransactionType type = selectedType();
+        PageCursor after = nextPage;
+        appending = true;
         
-        // Date
-        Label dateLabel = new Label(transaction.getFormattedDate());
-        dateLabel.getStyleClass().add("transaction-date");
-        
-        // Amount
-        Label amountLabel = new Label(transaction.getFormattedAmount());
-        amountLabel.getStyleClass().add("transaction-amount");
-        if (transaction.getType() == TransactionType.INCOME) {
-            amountLabel.getStyleClass().add("income-amount");
-        } else {
-            amountLabel.getStyleClass().add("expense-amount");
+        Task<List<Transaction>> load = new Task<>() {
+            @Override
+            protected List<Transaction> call() {
+                return dataManager.getPage(type, after, PAGE_SIZE);
+            }
+        };
+        load.setOnSucceeded(e -> {
+            if (load == currentLoad) {
+                List<Transaction> rows = load.getValue();
+                transactionsList.getItems().addAll(rows);
+                rememberNextPage(true, rows);
+                statusLabel.setText(transactionsList.getItems().size() + " loaded");
+            }
+        });
+        start(load);
+    }
+    
+    private void start(Task<List<Transaction>> load) {
+        load.setOnFailed(e -> {
+            if (load == currentLoad) {
+                statusLabel.setText("Search failed");
+                System.err.println("Error loading transactions: " + load.getException().getMessage());
+            }
+        });
+        currentLoad = load;
+        SEARCH_EXECUTOR.execute(load);
+    }
+    
+    // A short page means the listing is exhausted
+    private void rememberNextPage(boolean browsing, List<Transaction> page) {
+        nextPage = browsing && page.size() == PAGE_SIZE ? PageCursor.after(page.get(page.size() - 1)) : null;
+    }
+    
+    // Applies changes to the loaded pages in place, finding or placing each row by binary
+    // search in the list's newest-first order. Search results are queried again instead,
+    // since whether a row matches is for the search index to say.
+    private void applyChanges(List<TransactionChange> changes) {
+        boolean loading = currentLoad != null && !currentLoad.isDone();
+        if (!showingPages || (loading && !appending)) {
+            searchDelay.playFromStart();
+            return;
+        }
+        if (loading) {
+            // A page read before these changes could repeat or miss rows; it is read again below
+            currentLoad.cancel();
         }
         
-        // Delete button
-        Button deleteBtn = new Button("🗑️");
-        deleteBtn.getStyleClass().add("delete-button");
-        deleteBtn.setOnAction(e -> handleDelete(transaction));
+        List<Transaction> items = transactionsList.getItems();
+        TransactionType type = selectedType();
+        for (TransactionChange change : changes) {
+            if (change.getBefore() != null) {
+                remove(items, change.getBefore());
+            }
+            Transaction after = change.getAfter();
+            if (after != null && (type == null || after.getType() == type)) {
+                int index = Collections.binarySearch(items, after, PageCursor.NEWEST_FIRST);
+                if (index < 0) {
+                    index = -index - 1;
+                    // Rows past the last loaded one come with a later page
+                    if (index < items.size() || nextPage == null) {
+                        items.add(index, after);
+                    }
+                }
+            }
+        }
         
-        item.getChildren().addAll(iconLabel, details, typeLabel, dateLabel, amountLabel, deleteBtn);
-        return item;
+        if (loading) {
+            loadNextPage();
+        }
+    }
+    
+    // Loaded rows may be the repository's own objects, which a caller can edit before saving
+    // them, so a row no longer at its old position is looked up by id instead
+    private static void remove(List<Transaction> items, Transaction before) {
+        int index = Collections.binarySearch(items, before, PageCursor.NEWEST_FIRST);
+        if (index < 0 || !items.get(index).getTransactionId().equals(before.getTransactionId())) {
+            index = -1;
+            for (int i = 0; i < items.size() && index < 0; i++) {
+                if (items.get(i).getTransactionId().equals(before.getTransactionId())) {
+                    index = i;
+                }
+            }
+        }
+        if (index >= 0) {
+            items.remove(index);
+        }
+    }
+    
+    private TransactionType selectedType() {
+        String filter = filterComboBox.getValue();
+        if ("Income".equals(filter)) {
+            return TransactionType.INCOME;
+        }
+        if ("Expenses".equals(filter)) {
+            return TransactionType.EXPENSE;
+        }
+        return null;
     }
     
     private void handleDelete(Transaction transaction) {
@@ -189,9 +297,8 @@ public class HistoryView {
         
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
+                // The list and the dashboard both update from the change this publishes
                 dataManager.deleteTransaction(transaction.getId());
-                loadTransactions();
-                dashboardController.updateDashboardValues();
             }
         });
     }
@@ -199,4 +306,72 @@ public class HistoryView {
     public VBox getView() {
         return view;
     }
+    
+    // One row of the list. The nodes are built once per cell and only refilled when the
+    // cell is reused for another transaction.
+    private final class TransactionCell extends ListCell<Transaction> {
+        private final HBox item = new HBox(15);
+        private final Label iconLabel = new Label();
+        private final Label categoryLabel = new Label();
+        private final Label descLabel = new Label();
+        private final Label typeLabel = new Label();
+        private final Label dateLabel = new Label();
+        private final Label amountLabel = new Label();
+        
+        TransactionCell() {
+            item.getStyleClass().add("history-item");
+            item.setPadding(new Insets(15));
+            item.setAlignment(Pos.CENTER_LEFT);
+            
+            // Category icon
+            iconLabel.getStyleClass().add("transaction-icon");
+            
+            // Transaction details
+            VBox details = new VBox(5);
+            categoryLabel.getStyleClass().add("transaction-category");
+            descLabel.getStyleClass().add("transaction-description");
+            details.getChildren().addAll(categoryLabel, descLabel);
+            HBox.setHgrow(details, Priority.ALWAYS);
+            
+            typeLabel.getStyleClass().add("type-badge");
+            dateLabel.getStyleClass().add("transaction-date");
+            amountLabel.getStyleClass().add("transaction-amount");
+            
+            // Delete button
+            Button deleteBtn = new Button("🗑️");
+            deleteBtn.getStyleClass().add("delete-button");
+            deleteBtn.setOnAction(e -> handleDelete(getItem()));
+            
+            item.getChildren().addAll(iconLabel, details, typeLabel, dateLabel, amountLabel, deleteBtn);
+        }
+        
+        @Override
+        protected void updateItem(Transaction transaction, boolean empty) {
+            super.updateItem(transaction, empty);
+            setText(null);
+            if (empty || transaction == null) {
+                setGraphic(null);
+                return;
+            }
+            
+            iconLabel.setText(transaction.getCategory().getEmoji());
+            iconLabel.setStyle("-fx-background-color: " + transaction.getCategory().getColor() + ";");
+            categoryLabel.setText(transaction.getCategory().getDisplayName());
+            descLabel.setText(transaction.getDescription());
+            typeLabel.setText(transaction.getType().getDisplayName());
+            dateLabel.setText(transaction.getFormattedDate());
+            amountLabel.setText(transaction.getFormattedAmount());
+            
+            boolean income = transaction.getType() == TransactionType.INCOME;
+            typeLabel.getStyleClass().removeAll("income-badge", "expense-badge");
+            typeLabel.getStyleClass().add(income ? "income-badge" : "expense-badge");
+            amountLabel.getStyleClass().removeAll("income-amount", "expense-amount");
+            amountLabel.getStyleClass().add(income ? "income-amount" : "expense-amount");
+            setGraphic(item);
+            
+            if (getIndex() >= getListView().getItems().size() - PREFETCH_ROWS) {
+                loadNextPage();
+            }
+        }
+    }
 }
@@ -1,7 +1,13 @@
 package com.expensetracker.ui;
 
+import com.expensetracker.data.ColumnarLedger;
 import com.expensetracker.data.DataManager;
+import com.expensetracker.data.Repositories;
+import com.expensetracker.data.TransactionChange;
+import com.expensetracker.data.TransactionRepository;
 import com.expensetracker.model.Category;
+import com.expensetracker.model.CategoryTotals;
+import com.expensetracker.model.Money;
 import com.expensetracker.model.Transaction;
 import com.expensetracker.model.TransactionType;
 import javafx.geometry.Insets;
@@ -21,20 +27,28 @@ import java.io.PrintWriter;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 public class ReportsView {
     private VBox view;
-    private DataManager dataManager;
+    private TransactionRepository dataManager;
     private VBox reportContent;
     private String currentReportType = "Daily";
+    private Runnable unsubscribeChanges;
+    private Runnable unsubscribeDays;
     
     public ReportsView() {
-        this.dataManager = DataManager.getInstance();
+        this.dataManager = Repositories.getDefault();
         initializeView();
+        unsubscribeChanges = FxChangeSubscriber.subscribe(dataManager, this::applyChanges, this::refresh);
+        // Daily, monthly and yearly reports cover the period containing today
+        unsubscribeDays = UiClock.get().onDayChange(today -> refresh());
+    }
+    
+    // Stops listening for ledger changes and date changes; the view is not used again
+    public void dispose() {
+        unsubscribeChanges.run();
+        unsubscribeDays.run();
     }
     
     private void initializeView() {
@@ -122,6 +136,55 @@ public class ReportsView {
         showDailyReport();
     }
     
+    // Rebuilds the selected report when a change falls in its period. Its sections come from
+    // the repository's rollups, so a rebuild is a handful of aggregate queries, not a rescan.
+    private void applyChanges(List<TransactionChange> changes) {
+        for (TransactionChange change : changes) {
+            if (inCurrentReport(change.getBefore()) || inCurrentReport(change.getAfter())) {
+                refresh();
+                return;
+            }
+        }
+    }
+    
+    private boolean inCurrentReport(Transaction transaction) {
+        if (transaction == null) {
+            return false;
+        }
+        LocalDate date = transaction.getDate();
+        switch (currentReportType) {
+            case "Daily":
+                return date.equals(LocalDate.now());
+            case "Monthly":
+                return YearMonth.from(date).equals(YearMonth.now());
+            case "Yearly":
+                return date.getYear() == LocalDate.now().getYear();
+            default:
+                return true;
+        }
+    }
+    
+    // Rebuilds the selected report from the latest data; the rest of the screen is kept
+    public void refresh() {
+        switch (currentReportType) {
+            case "Monthly":
+                showMonthlyReport();
+                break;
+            case "Yearly":
+                showYearlyReport();
+                break;
+            case "Category":
+                showCategoryReport();
+                break;
+            case "Charts":
+                showChartsView();
+                break;
+            default:
+                showDailyReport();
+                break;
+        }
+    }
+    
     private void showDailyReport() {
         reportContent.getChildren().clear();
         
@@ -129,10 +192,9 @@ public class ReportsView {
         reportTitle.getStyleClass().add("report-title");
         
         LocalDate today = LocalDate.now();
-        List<Transaction> todayTransactions = dataManager.getTransactionsByDateRange(today, today);
         
-        VBox summaryBox = createDailySummary(todayTransactions);
-        VBox transactionsList = createTransactionsList(todayTransactions, "Today's Transactions");
+        VBox summaryBox = createDailySummary(today, today);
+        VBox transactionsList = createTransactionsList(today, today, "Today's Transactions");
         
         reportContent.getChildren().addAll(reportTitle, summaryBox, transactionsList);
     }
@@ -147,13 +209,14 @@ public class ReportsView {
         LocalDate startOfMonth = currentMonth.atDay(1);
         LocalDate endOfMonth = currentMonth.atEndOfMonth();
         
-        List<Transaction> monthTransactions = dataManager.getTransactionsByDateRange(startOfMonth, endOfMonth);
-        
-        VBox summaryBox = createMonthlySummary(monthTransactions);
-        VBox categoryBreakdown = createCategoryBreakdown(monthTransactions);
-        VBox transactionsList = createTransactionsList(monthTransactions, "This Month's Transactions");
+        VBox summaryBox = createMonthlySummary(startOfMonth, endOfMonth);
+        VBox categoryBreakdown = createCategoryBreakdown(startOfMonth, endOfMonth);
+        VBox largestExpenses = createTransactionsList(
+                dataManager.getLargest(5, TransactionType.EXPENSE, startOfMonth, endOfMonth),
+                0, "Largest Expenses This Month");
+        VBox transactionsList = createTransactionsList(startOfMonth, endOfMonth, "This Month's Transactions");
         
-        reportContent.getChildren().addAll(reportTitle, summaryBox, categoryBreakdown, transactionsList);
+        reportContent.getChildren().addAll(reportTitle, summaryBox, categoryBreakdown, largestExpenses, transactionsList);
     }
     
     private void showYearlyReport() {
@@ -166,11 +229,9 @@ public class ReportsView {
         LocalDate startOfYear = LocalDate.of(currentYear, 1, 1);
         LocalDate endOfYear = LocalDate.of(currentYear, 12, 31);
         
-        List<Transaction> yearTransactions = dataManager.getTransactionsByDateRange(startOfYear, endOfYear);
-        
-        VBox summaryBox = createYearlySummary(yearTransactions);
-        VBox monthlyBreakdown = createMonthlyBreakdown(yearTransactions, currentYear);
-        VBox categoryBreakdown = createCategoryBreakdown(yearTransactions);
+        VBox summaryBox = createYearlySummary(startOfYear, endOfYear);
+        VBox monthlyBreakdown = createMonthlyBreakdown(currentYear);
+        VBox categoryBreakdown = createCategoryBreakdown(startOfYear, endOfYear);
         
         reportContent.getChildren().addAll(reportTitle, summaryBox, monthlyBreakdown, categoryBreakdown);
     }
@@ -181,33 +242,25 @@ public class ReportsView {
         Label reportTitle = new Label("Category-wise Analysis");
         reportTitle.getStyleClass().add("report-title");
         
-        List<Transaction> allTransactions = dataManager.getAllTransactions();
-        VBox categoryAnalysis = createDetailedCategoryAnalysis(allTransactions);
+        VBox categoryAnalysis = createDetailedCategoryAnalysis();
         
         reportContent.getChildren().addAll(reportTitle, categoryAnalysis);
     }
     
-    private VBox createDailySummary(List<Transaction> transactions) {
+    private VBox createDailySummary(LocalDate start, LocalDate end) {
         VBox summary = new VBox(15);
         summary.getStyleClass().add("report-summary");
         summary.setPadding(new Insets(20));
         
-        double income = transactions.stream()
-            .filter(t -> t.getType() == TransactionType.INCOME)
-            .mapToDouble(Transaction::getAmount)
-            .sum();
-            
-        double expense = transactions.stream()
-            .filter(t -> t.getType() == TransactionType.EXPENSE)
-            .mapToDouble(Transaction::getAmount)
-            .sum();
+        long income = dataManager.getTotal(TransactionType.INCOME, start, end);
+        long expense = dataManager.getTotal(TransactionType.EXPENSE, start, end);
         
         HBox statsBox = new HBox(20);
         statsBox.setAlignment(Pos.CENTER);
         
-        VBox incomeBox = createStatBox("Income", String.format("₹%.2f", income), "income-stat");
-        VBox expenseBox = createStatBox("Expenses", String.format("₹%.2f", expense), "expense-stat");
-        VBox netBox = createStatBox("Net", String.format("₹%.2f", income - expense), "net-stat");
+        VBox incomeBox = createStatBox("Income", Money.format(income), "income-stat");
+        VBox expenseBox = createStatBox("Expenses", Money.format(expense), "expense-stat");
+        VBox netBox = createStatBox("Net", Money.format(income - expense), "net-stat");
         
         statsBox.getChildren().addAll(incomeBox, expenseBox, netBox);
         summary.getChildren().add(statsBox);
@@ -215,34 +268,27 @@ public class ReportsView {
         return summary;
     }
     
-    private VBox createMonthlySummary(List<Transaction> transactions) {
-        return createDailySummary(transactions); // Same structure, different data
+    private VBox createMonthlySummary(LocalDate start, LocalDate end) {
+        return createDailySummary(start, end); // Same structure, different data
     }
     
-    private VBox createYearlySummary(List<Transaction> transactions) {
+    private VBox createYearlySummary(LocalDate start, LocalDate end) {
         VBox summary = new VBox(15);
         summary.getStyleClass().add("report-summary");
         summary.setPadding(new Insets(20));
         
-        double income = transactions.stream()
-            .filter(t -> t.getType() == TransactionType.INCOME)
-            .mapToDouble(Transaction::getAmount)
-            .sum();
-            
-        double expense = transactions.stream()
-            .filter(t -> t.getType() == TransactionType.EXPENSE)
-            .mapToDouble(Transaction::getAmount)
-            .sum();
+        long income = dataManager.getTotal(TransactionType.INCOME, start, end);
+        long expense = dataManager.getTotal(TransactionType.EXPENSE, start, end);
         
-        int transactionCount = transactions.size();
-        double avgMonthlyExpense = expense / 12;
+        int transactionCount = dataManager.getTransactionCount(start, end);
+        long avgMonthlyExpense = Math.round(expense / 12.0);
         
         HBox statsBox = new HBox(20);
         statsBox.setAlignment(Pos.CENTER);
         
-        VBox incomeBox = createStatBox("Total Income", String.format("₹%.2f", income), "income-stat");
-        VBox expenseBox = createStatBox("Total Expenses", String.format("₹%.2f", expense), "expense-stat");
-        VBox avgBox = createStatBox("Avg Monthly", String.format("₹%.2f", avgMonthlyExpense), "avg-stat");
+        VBox incomeBox = createStatBox("Total Income", Money.format(income), "income-stat");
+        VBox expenseBox = createStatBox("Total Expenses", Money.format(expense), "expense-stat");
+        VBox avgBox = createStatBox("Avg Monthly", Money.format(avgMonthlyExpense), "avg-stat");
         VBox countBox = createStatBox("Transactions", String.valueOf(transactionCount), "count-stat");
         
         statsBox.getChildren().addAll(incomeBox, expenseBox, avgBox, countBox);
@@ -268,29 +314,21 @@ public class ReportsView {
         return box;
     }
     
-    private VBox createCategoryBreakdown(List<Transaction> transactions) {
+    private VBox createCategoryBreakdown(LocalDate start, LocalDate end) {
         VBox breakdown = new VBox(10);
         breakdown.setPadding(new Insets(20));
         
         Label title = new Label("Category Breakdown");
         title.getStyleClass().add("subsection-title");
         
-        Map<Category, Double> categoryTotals = new HashMap<>();
-        
-        transactions.stream()
-            .filter(t -> t.getType() == TransactionType.EXPENSE)
-            .forEach(t -> {
-                categoryTotals.merge(t.getCategory(), t.getAmount(), Double::sum);
-            });
+        CategoryTotals categoryTotals = dataManager.getCategoryTotals(TransactionType.EXPENSE, start, end);
         
         VBox categoriesBox = new VBox(8);
         
-        categoryTotals.entrySet().stream()
-            .sorted((e1, e2) -> Double.compare(e2.getValue(), e1.getValue()))
-            .forEach(entry -> {
-                HBox categoryItem = createCategoryItem(entry.getKey(), entry.getValue());
-                categoriesBox.getChildren().add(categoryItem);
-            });
+        for (Category category : categoryTotals.byAmountDescending()) {
+            HBox categoryItem = createCategoryItem(category, categoryTotals.get(category));
+            categoriesBox.getChildren().add(categoryItem);
+        }
         
         if (categoriesBox.getChildren().isEmpty()) {
             Label emptyLabel = new Label("No expense data available");
@@ -302,7 +340,7 @@ public class ReportsView {
         return breakdown;
     }
     
-    private HBox createCategoryItem(Category category, double amount) {
+    private HBox createCategoryItem(Category category, long amount) {
         HBox item = new HBox(10);
         item.setAlignment(Pos.CENTER_LEFT);
         item.getStyleClass().add("category-item");
@@ -316,14 +354,14 @@ public class ReportsView {
         nameLabel.getStyleClass().add("category-name");
         HBox.setHgrow(nameLabel, Priority.ALWAYS);
         
-        Label amountLabel = new Label(String.format("₹%.2f", amount));
+        Label amountLabel = new Label(Money.format(amount));
         amountLabel.getStyleClass().add("category-amount");
         
         item.getChildren().addAll(icon, nameLabel, amountLabel);
         return item;
     }
     
-    private VBox createMonthlyBreakdown(List<Transaction> transactions, int year) {
+    private VBox createMonthlyBreakdown(int year) {
         VBox breakdown = new VBox(10);
         breakdown.setPadding(new Insets(20));
         
@@ -332,24 +370,13 @@ public class ReportsView {
         
         VBox monthsBox = new VBox(8);
         
+        long[] incomeByMonth = dataManager.getMonthlyTotals(TransactionType.INCOME, YearMonth.of(year, 1), YearMonth.of(year, 12));
+        long[] expenseByMonth = dataManager.getMonthlyTotals(TransactionType.EXPENSE, YearMonth.of(year, 1), YearMonth.of(year, 12));
+        
         for (int month = 1; month <= 12; month++) {
             YearMonth yearMonth = YearMonth.of(year, month);
-            LocalDate start = yearMonth.atDay(1);
-            LocalDate end = yearMonth.atEndOfMonth();
-            
-            List<Transaction> monthTransactions = transactions.stream()
-                .filter(t -> !t.getDate().isBefore(start) && !t.getDate().isAfter(end))
-                .collect(Collectors.toList());
-            
-            double monthIncome = monthTransactions.stream()
-                .filter(t -> t.getType() == TransactionType.INCOME)
-                .mapToDouble(Transaction::getAmount)
-                .sum();
-                
-            double monthExpense = monthTransactions.stream()
-                .filter(t -> t.getType() == TransactionType.EXPENSE)
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+            long monthIncome = incomeByMonth[month - 1];
+            long monthExpense = expenseByMonth[month - 1];
             
             if (monthIncome > 0 || monthExpense > 0) {
                 HBox monthItem = createMonthItem(yearMonth, monthIncome, monthExpense);
@@ -367,7 +394,7 @@ public class ReportsView {
         return breakdown;
     }
     
-    private HBox createMonthItem(YearMonth month, double income, double expense) {
+    private HBox createMonthItem(YearMonth month, long income, long expense) {
         HBox item = new HBox(15);
         item.setAlignment(Pos.CENTER_LEFT);
         item.getStyleClass().add("month-item");
@@ -380,21 +407,21 @@ public class ReportsView {
         VBox incomeBox = new VBox(2);
         Label incomeTitle = new Label("Income");
         incomeTitle.getStyleClass().add("mini-label");
-        Label incomeValue = new Label(String.format("₹%.2f", income));
+        Label incomeValue = new Label(Money.format(income));
         incomeValue.getStyleClass().addAll("mini-value", "income-text");
         incomeBox.getChildren().addAll(incomeTitle, incomeValue);
         
         VBox expenseBox = new VBox(2);
         Label expenseTitle = new Label("Expense");
         expenseTitle.getStyleClass().add("mini-label");
-        Label expenseValue = new Label(String.format("₹%.2f", expense));
+        Label expenseValue = new Label(Money.format(expense));
         expenseValue.getStyleClass().addAll("mini-value", "expense-text");
         expenseBox.getChildren().addAll(expenseTitle, expenseValue);
         
         VBox netBox = new VBox(2);
         Label netTitle = new Label("Net");
         netTitle.getStyleClass().add("mini-label");
-        Label netValue = new Label(String.format("₹%.2f", income - expense));
+        Label netValue = new Label(Money.format(income - expense));
         netValue.getStyleClass().add("mini-value");
         netBox.getChildren().addAll(netTitle, netValue);
         
@@ -402,7 +429,7 @@ public class ReportsView {
         return item;
     }
     
-    private VBox createDetailedCategoryAnalysis(List<Transaction> transactions) {
+    private VBox createDetailedCategoryAnalysis() {
         VBox analysis = new VBox(20);
         analysis.setPadding(new Insets(20));
         
@@ -411,48 +438,30 @@ public class ReportsView {
         expenseTitle.getStyleClass().add("subsection-title");
         
         VBox expenseCategories = new VBox(8);
-        Map<Category, Double> expenseTotals = new HashMap<>();
-        
-        transactions.stream()
-            .filter(t -> t.getType() == TransactionType.EXPENSE)
-            .forEach(t -> expenseTotals.merge(t.getCategory(), t.getAmount(), Double::sum));
-        
-        double totalExpense = expenseTotals.values().stream().mapToDouble(Double::doubleValue).sum();
+        CategoryTotals expenseTotals = dataManager.getCategoryTotals(TransactionType.EXPENSE, LocalDate.MIN, LocalDate.MAX);
         
-        expenseTotals.entrySet().stream()
-            .sorted((e1, e2) -> Double.compare(e2.getValue(), e1.getValue()))
-            .forEach(entry -> {
-                double percentage = totalExpense > 0 ? (entry.getValue() / totalExpense) * 100 : 0;
-                HBox categoryItem = createDetailedCategoryItem(entry.getKey(), entry.getValue(), percentage);
-                expenseCategories.getChildren().add(categoryItem);
-            });
+        for (Category category : expenseTotals.byAmountDescending()) {
+            HBox categoryItem = createDetailedCategoryItem(category, expenseTotals.get(category), expenseTotals.getPercentage(category));
+            expenseCategories.getChildren().add(categoryItem);
+        }
         
         // Income categories
         Label incomeTitle = new Label("Income Categories");
         incomeTitle.getStyleClass().add("subsection-title");
         
         VBox incomeCategories = new VBox(8);
-        Map<Category, Double> incomeTotals = new HashMap<>();
-        
-        transactions.stream()
-            .filter(t -> t.getType() == TransactionType.INCOME)
-            .forEach(t -> incomeTotals.merge(t.getCategory(), t.getAmount(), Double::sum));
+        CategoryTotals incomeTotals = dataManager.getCategoryTotals(TransactionType.INCOME, LocalDate.MIN, LocalDate.MAX);
         
-        double totalIncome = incomeTotals.values().stream().mapToDouble(Double::doubleValue).sum();
-        
-        incomeTotals.entrySet().stream()
-            .sorted((e1, e2) -> Double.compare(e2.getValue(), e1.getValue()))
-            .forEach(entry -> {
-                double percentage = totalIncome > 0 ? (entry.getValue() / totalIncome) * 100 : 0;
-                HBox categoryItem = createDetailedCategoryItem(entry.getKey(), entry.getValue(), percentage);
-                incomeCategories.getChildren().add(categoryItem);
-            });
+        for (Category category : incomeTotals.byAmountDescending()) {
+            HBox categoryItem = createDetailedCategoryItem(category, incomeTotals.get(category), incomeTotals.getPercentage(category));
+            incomeCategories.getChildren().add(categoryItem);
+        }
         
         analysis.getChildren().addAll(expenseTitle, expenseCategories, incomeTitle, incomeCategories);
         return analysis;
     }
     
-    private HBox createDetailedCategoryItem(Category category, double amount, double percentage) {
+    private HBox createDetailedCategoryItem(Category category, long amount, double percentage) {
         HBox item = new HBox(10);
         item.setAlignment(Pos.CENTER_LEFT);
         item.getStyleClass().add("detailed-category-item");
@@ -475,7 +484,7 @@ public class ReportsView {
         percentLabel.getStyleClass().add("percent-label");
         percentLabel.setPrefWidth(60);
         
-        Label amountLabel = new Label(String.format("₹%.2f", amount));
+        Label amountLabel = new Label(Money.format(amount));
         amountLabel.getStyleClass().add("category-amount");
         
         HBox.setHgrow(progressBar, Priority.ALWAYS);
@@ -484,7 +493,14 @@ public class ReportsView {
         return item;
     }
     
-    private VBox createTransactionsList(List<Transaction> transactions, String title) {
+    // The 10 latest transactions of the period; only those rows are fetched, plus a count of the rest
+    private VBox createTransactionsList(LocalDate start, LocalDate end, String title) {
+        List<Transaction> transactions = dataManager.getRecent(10, start, end);
+        int hidden = transactions.size() < 10 ? 0 : dataManager.getTransactionCount(start, end) - transactions.size();
+        return createTransactionsList(transactions, hidden, title);
+    }
+    
+    private VBox createTransactionsList(List<Transaction> transactions, int hidden, String title) {
         VBox list = new VBox(10);
         list.setPadding(new Insets(20));
         
@@ -498,16 +514,13 @@ public class ReportsView {
             emptyLabel.getStyleClass().add("empty-message");
             transBox.getChildren().add(emptyLabel);
         } else {
-            // Show last 10 transactions
-            int count = Math.min(10, transactions.size());
-            for (int i = transactions.size() - 1; i >= Math.max(0, transactions.size() - count); i--) {
-                Transaction t = transactions.get(i);
+            for (Transaction t : transactions) {
                 HBox item = createSimpleTransactionItem(t);
                 transBox.getChildren().add(item);
             }
             
-            if (transactions.size() > 10) {
-                Label moreLabel = new Label("... and " + (transactions.size() - 10) + " more transactions");
+            if (hidden > 0) {
+                Label moreLabel = new Label("... and " + hidden + " more transactions");
                 moreLabel.getStyleClass().add("more-label");
                 transBox.getChildren().add(moreLabel);
             }
@@ -608,23 +621,23 @@ public class ReportsView {
         writer.println("-".repeat(80));
         writer.println();
         
-        double income = transactions.stream().filter(t -> t.getType() == TransactionType.INCOME).mapToDouble(Transaction::getAmount).sum();
-        double expense = transactions.stream().filter(t -> t.getType() == TransactionType.EXPENSE).mapToDouble(Transaction::getAmount).sum();
+        long income = transactions.stream().filter(t -> t.getType() == TransactionType.INCOME).mapToLong(Transaction::getAmountInPaise).sum();
+        long expense = transactions.stream().filter(t -> t.getType() == TransactionType.EXPENSE).mapToLong(Transaction::getAmountInPaise).sum();
         
-        writer.printf("Total Income:    ₹%.2f%n", income);
-        writer.printf("Total Expenses:  ₹%.2f%n", expense);
-        writer.printf("Net Balance:     ₹%.2f%n", income - expense);
+        writer.printf("Total Income:    %s%n", Money.format(income));
+        writer.printf("Total Expenses:  %s%n", Money.format(expense));
+        writer.printf("Net Balance:     %s%n", Money.format(income - expense));
         writer.println();
         
         if (!transactions.isEmpty()) {
             writer.println("TRANSACTIONS:");
             writer.println("-".repeat(80));
             for (Transaction t : transactions) {
-                writer.printf("%-15s %-30s %10s  ₹%.2f%n", 
+                writer.printf("%-15s %-30s %10s  %s%n", 
                     t.getCategory().getDisplayName(), 
                     t.getDescription(), 
                     t.getType().getDisplayName(),
-                    t.getAmount());
+                    t.getFormattedAmount());
             }
         } else {
             writer.println("No transactions for today.");
@@ -635,31 +648,28 @@ public class ReportsView {
         YearMonth currentMonth = YearMonth.now();
         LocalDate start = currentMonth.atDay(1);
         LocalDate end = currentMonth.atEndOfMonth();
-        List<Transaction> transactions = dataManager.getTransactionsByDateRange(start, end);
         
         writer.println("MONTHLY REPORT - " + currentMonth.format(DateTimeFormatter.ofPattern("MMMM yyyy")));
         writer.println("-".repeat(80));
         writer.println();
         
-        double income = transactions.stream().filter(t -> t.getType() == TransactionType.INCOME).mapToDouble(Transaction::getAmount).sum();
-        double expense = transactions.stream().filter(t -> t.getType() == TransactionType.EXPENSE).mapToDouble(Transaction::getAmount).sum();
+        long income = dataManager.getTotal(TransactionType.INCOME, start, end);
+        long expense = dataManager.getTotal(TransactionType.EXPENSE, start, end);
         
-        writer.printf("Total Income:    ₹%.2f%n", income);
-        writer.printf("Total Expenses:  ₹%.2f%n", expense);
-        writer.printf("Net Balance:     ₹%.2f%n", income - expense);
+        writer.printf("Total Income:    %s%n", Money.format(income));
+        writer.printf("Total Expenses:  %s%n", Money.format(expense));
+        writer.printf("Net Balance:     %s%n", Money.format(income - expense));
         writer.println();
         
         // Category breakdown
-        Map<Category, Double> categoryTotals = new HashMap<>();
-        transactions.stream().filter(t -> t.getType() == TransactionType.EXPENSE)
-            .forEach(t -> categoryTotals.merge(t.getCategory(), t.getAmount(), Double::sum));
+        CategoryTotals categoryTotals = dataManager.getCategoryTotals(TransactionType.EXPENSE, start, end);
         
         if (!categoryTotals.isEmpty()) {
             writer.println("CATEGORY BREAKDOWN:");
             writer.println("-".repeat(80));
-            categoryTotals.entrySet().stream()
-                .sorted((e1, e2) -> Double.compare(e2.getValue(), e1.getValue()))
-                .forEach(entry -> writer.printf("%-25s ₹%.2f%n", entry.getKey().getDisplayName(), entry.getValue()));
+            for (Category category : categoryTotals.byAmountDescending()) {
+                writer.printf("%-25s %s%n", category.getDisplayName(), Money.format(categoryTotals.get(category)));
+            }
         }
     }
     
@@ -667,20 +677,19 @@ public class ReportsView {
         int year = LocalDate.now().getYear();
         LocalDate start = LocalDate.of(year, 1, 1);
         LocalDate end = LocalDate.of(year, 12, 31);
-        List<Transaction> transactions = dataManager.getTransactionsByDateRange(start, end);
         
         writer.println("YEARLY REPORT - " + year);
         writer.println("-".repeat(80));
         writer.println();
         
-        double income = transactions.stream().filter(t -> t.getType() == TransactionType.INCOME).mapToDouble(Transaction::getAmount).sum();
-        double expense = transactions.stream().filter(t -> t.getType() == TransactionType.EXPENSE).mapToDouble(Transaction::getAmount).sum();
+        long income = dataManager.getTotal(TransactionType.INCOME, start, end);
+        long expense = dataManager.getTotal(TransactionType.EXPENSE, start, end);
         
-        writer.printf("Total Income:        ₹%.2f%n", income);
-        writer.printf("Total Expenses:      ₹%.2f%n", expense);
-        writer.printf("Net Balance:         ₹%.2f%n", income - expense);
-        writer.printf("Avg Monthly Expense: ₹%.2f%n", expense / 12);
-        writer.printf("Total Transactions:  %d%n", transactions.size());
+        writer.printf("Total Income:        %s%n", Money.format(income));
+        writer.printf("Total Expenses:      %s%n", Money.format(expense));
+        writer.printf("Net Balance:         %s%n", Money.format(income - expense));
+        writer.printf("Avg Monthly Expense: %s%n", Money.format(Math.round(expense / 12.0)));
+        writer.printf("Total Transactions:  %d%n", dataManager.getTransactionCount(start, end));
         writer.println();
         
         writer.println("MONTHLY BREAKDOWN:");
@@ -688,29 +697,23 @@ public class ReportsView {
         writer.printf("%-12s %15s %15s %15s%n", "Month", "Income", "Expense", "Net");
         writer.println("-".repeat(80));
         
+        long[] incomeByMonth = dataManager.getMonthlyTotals(TransactionType.INCOME, YearMonth.of(year, 1), YearMonth.of(year, 12));
+        long[] expenseByMonth = dataManager.getMonthlyTotals(TransactionType.EXPENSE, YearMonth.of(year, 1), YearMonth.of(year, 12));
+        
         for (int month = 1; month <= 12; month++) {
             YearMonth yearMonth = YearMonth.of(year, month);
-            LocalDate monthStart = yearMonth.atDay(1);
-            LocalDate monthEnd = yearMonth.atEndOfMonth();
-            
-            List<Transaction> monthTrans = transactions.stream()
-                .filter(t -> !t.getDate().isBefore(monthStart) && !t.getDate().isAfter(monthEnd))
-                .collect(Collectors.toList());
-            
-            double monthIncome = monthTrans.stream().filter(t -> t.getType() == TransactionType.INCOME).mapToDouble(Transaction::getAmount).sum();
-            double monthExpense = monthTrans.stream().filter(t -> t.getType() == TransactionType.EXPENSE).mapToDouble(Transaction::getAmount).sum();
+            long monthIncome = incomeByMonth[month - 1];
+            long monthExpense = expenseByMonth[month - 1];
             
             if (monthIncome > 0 || monthExpense > 0) {
-                writer.printf("%-12s %15.2f %15.2f %15.2f%n", 
+                writer.printf("%-12s %15s %15s %15s%n", 
                     yearMonth.format(DateTimeFormatter.ofPattern("MMMM")),
-                    monthIncome, monthExpense, monthIncome - monthExpense);
+                    Money.plain(monthIncome), Money.plain(monthExpense), Money.plain(monthIncome - monthExpense));
             }
         }
     }
     
     private void generateCategoryReportText(PrintWriter writer) {
-        List<Transaction> transactions = dataManager.getAllTransactions();
-        
         writer.println("CATEGORY-WISE ANALYSIS");
         writer.println("-".repeat(80));
         writer.println();
@@ -718,22 +721,15 @@ public class ReportsView {
         // Expense Categories
         writer.println("EXPENSE CATEGORIES:");
         writer.println("-".repeat(80));
-        Map<Category, Double> expenseTotals = new HashMap<>();
-        transactions.stream().filter(t -> t.getType() == TransactionType.EXPENSE)
-            .forEach(t -> expenseTotals.merge(t.getCategory(), t.getAmount(), Double::sum));
-        
-        double totalExpense = expenseTotals.values().stream().mapToDouble(Double::doubleValue).sum();
+        CategoryTotals expenseTotals = exportCategoryTotals(TransactionType.EXPENSE);
         
         if (!expenseTotals.isEmpty()) {
             writer.printf("%-25s %15s %15s%n", "Category", "Amount", "Percentage");
             writer.println("-".repeat(80));
-            expenseTotals.entrySet().stream()
-                .sorted((e1, e2) -> Double.compare(e2.getValue(), e1.getValue()))
-                .forEach(entry -> {
-                    double percentage = totalExpense > 0 ? (entry.getValue() / totalExpense) * 100 : 0;
-                    writer.printf("%-25s ₹%14.2f %14.1f%%%n", 
-                        entry.getKey().getDisplayName(), entry.getValue(), percentage);
-                });
+            for (Category category : expenseTotals.byAmountDescending()) {
+                writer.printf("%-25s ₹%14s %14.1f%%%n", 
+                    category.getDisplayName(), Money.plain(expenseTotals.get(category)), expenseTotals.getPercentage(category));
+            }
         }
         
         writer.println();
@@ -741,23 +737,32 @@ public class ReportsView {
         // Income Categories
         writer.println("INCOME CATEGORIES:");
         writer.println("-".repeat(80));
-        Map<Category, Double> incomeTotals = new HashMap<>();
-        transactions.stream().filter(t -> t.getType() == TransactionType.INCOME)
-            .forEach(t -> incomeTotals.merge(t.getCategory(), t.getAmount(), Double::sum));
-        
-        double totalIncome = incomeTotals.values().stream().mapToDouble(Double::doubleValue).sum();
+        CategoryTotals incomeTotals = exportCategoryTotals(TransactionType.INCOME);
         
         if (!incomeTotals.isEmpty()) {
             writer.printf("%-25s %15s %15s%n", "Category", "Amount", "Percentage");
             writer.println("-".repeat(80));
-            incomeTotals.entrySet().stream()
-                .sorted((e1, e2) -> Double.compare(e2.getValue(), e1.getValue()))
-                .forEach(entry -> {
-                    double percentage = totalIncome > 0 ? (entry.getValue() / totalIncome) * 100 : 0;
-                    writer.printf("%-25s ₹%14.2f %14.1f%%%n", 
-                        entry.getKey().getDisplayName(), entry.getValue(), percentage);
-                });
+            for (Category category : incomeTotals.byAmountDescending()) {
+                writer.printf("%-25s ₹%14s %14.1f%%%n", 
+                    category.getDisplayName(), Money.plain(incomeTotals.get(category)), incomeTotals.getPercentage(category));
+            }
+        }
+    }
+    
+    // Whole-ledger breakdowns for the exported category report. With the file ledger they are
+    // summed from its memory-mapped columnar copy, which reads primitive columns rather than
+    // rows; the H2 backend, or a columnar copy that cannot be written, falls back to the
+    // repository's own totals.
+    private CategoryTotals exportCategoryTotals(TransactionType type) {
+        if (dataManager instanceof DataManager) {
+            try {
+                ColumnarLedger columns = ((DataManager) dataManager).openColumnarLedger();
+                return columns.sumByCategory(type, LocalDate.MIN, LocalDate.MAX);
+            } catch (IOException e) {
+                System.err.println("Error opening columnar ledger: " + e.getMessage());
+            }
         }
+        return dataManager.getCategoryTotals(type, LocalDate.MIN, LocalDate.MAX);
     }
     
     private void showChartsView() {
@@ -819,32 +824,17 @@ public class ReportsView {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(29);
         
-        Map<LocalDate, Double> dailyExpenses = new HashMap<>();
-        Map<LocalDate, Double> dailyIncome = new HashMap<>();
-        
-        // Initialize all dates with 0
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            dailyExpenses.put(date, 0.0);
-            dailyIncome.put(date, 0.0);
-        }
-        
-        // Get transactions and aggregate by date
-        List<Transaction> transactions = dataManager.getTransactionsByDateRange(startDate, endDate);
-        for (Transaction t : transactions) {
-            if (t.getType() == TransactionType.EXPENSE) {
-                dailyExpenses.merge(t.getDate(), t.getAmount(), Double::sum);
-            } else {
-                dailyIncome.merge(t.getDate(), t.getAmount(), Double::sum);
-            }
-        }
+        // Daily totals from the rollup, one entry per day including empty ones
+        long[] dailyExpenses = dataManager.getDailyTotals(TransactionType.EXPENSE, startDate, endDate);
+        long[] dailyIncome = dataManager.getDailyTotals(TransactionType.INCOME, startDate, endDate);
         
         // Add data points (show every 3rd day to avoid clutter)
         int count = 0;
         for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
             if (count % 3 == 0 || date.equals(endDate)) {
                 String dateStr = date.format(DateTimeFormatter.ofPattern("dd MMM"));
-                expenseSeries.getData().add(new XYChart.Data<>(dateStr, dailyExpenses.get(date)));
-                incomeSeries.getData().add(new XYChart.Data<>(dateStr, dailyIncome.get(date)));
+                expenseSeries.getData().add(new XYChart.Data<>(dateStr, Money.toDouble(dailyExpenses[count])));
+                incomeSeries.getData().add(new XYChart.Data<>(dateStr, Money.toDouble(dailyIncome[count])));
             }
             count++;
         }
@@ -875,28 +865,19 @@ public class ReportsView {
         // Get current month data
         LocalDate now = LocalDate.now();
         LocalDate startOfMonth = now.withDayOfMonth(1);
-        List<Transaction> monthTransactions = dataManager.getTransactionsByDateRange(startOfMonth, now);
         
         // Calculate category totals
-        Map<Category, Double> categoryTotals = new HashMap<>();
-        monthTransactions.stream()
-            .filter(t -> t.getType() == TransactionType.EXPENSE)
-            .forEach(t -> categoryTotals.merge(t.getCategory(), t.getAmount(), Double::sum));
+        CategoryTotals categoryTotals = dataManager.getCategoryTotals(TransactionType.EXPENSE, startOfMonth, now);
         
         // Add data to pie chart
         if (!categoryTotals.isEmpty()) {
-            double total = categoryTotals.values().stream().mapToDouble(Double::doubleValue).sum();
-            
-            categoryTotals.entrySet().stream()
-                .sorted((e1, e2) -> Double.compare(e2.getValue(), e1.getValue()))
-                .forEach(entry -> {
-                    double percentage = (entry.getValue() / total) * 100;
-                    String label = String.format("%s (%.1f%%)", 
-                        entry.getKey().getEmoji() + " " + entry.getKey().getDisplayName(), 
-                        percentage);
-                    PieChart.Data slice = new PieChart.Data(label, entry.getValue());
-                    pieChart.getData().add(slice);
-                });
+            for (Category category : categoryTotals.byAmountDescending()) {
+                String label = String.format("%s (%.1f%%)", 
+                    category.getEmoji() + " " + category.getDisplayName(), 
+                    categoryTotals.getPercentage(category));
+                PieChart.Data slice = new PieChart.Data(label, Money.toDouble(categoryTotals.get(category)));
+                pieChart.getData().add(slice);
+            }
         } else {
             pieChart.getData().add(new PieChart.Data("No expenses yet", 1));
         }
@@ -940,23 +921,13 @@ public class ReportsView {
         
         // Get last 6 months data
         YearMonth currentMonth = YearMonth.now();
+        long[] expenseByMonth = dataManager.getMonthlyTotals(TransactionType.EXPENSE, currentMonth.minusMonths(5), currentMonth);
+        long[] incomeByMonth = dataManager.getMonthlyTotals(TransactionType.INCOME, currentMonth.minusMonths(5), currentMonth);
         
         for (int i = 5; i >= 0; i--) {
             YearMonth month = currentMonth.minusMonths(i);
-            LocalDate startDate = month.atDay(1);
-            LocalDate endDate = month.atEndOfMonth();
-            
-            List<Transaction> monthTransactions = dataManager.getTransactionsByDateRange(startDate, endDate);
-            
-            double monthExpense = monthTransactions.stream()
-                .filter(t -> t.getType() == TransactionType.EXPENSE)
-                .mapToDouble(Transaction::getAmount)
-                .sum();
-            
-            double monthIncome = monthTransactions.stream()
-                .filter(t -> t.getType() == TransactionType.INCOME)
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+            double monthExpense = Money.toDouble(expenseByMonth[5 - i]);
+            double monthIncome = Money.toDouble(incomeByMonth[5 - i]);
             
             String monthLabel = month.format(DateTimeFormatter.ofPattern("MMM yyyy"));
             expenseSeries.getData().add(new XYChart.Data<>(monthLabel, monthExpense));
@@ -1084,19 +1055,19 @@ public class ReportsView {
         
         // Add data
         Font dataFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
-        double totalIncome = 0;
-        double totalExpense = 0;
+        long totalIncome = 0;
+        long totalExpense = 0;
         
         for (Transaction t : todayTransactions) {
             table.addCell(new Phrase(t.getCategory().getEmoji() + " " + t.getCategory().getDisplayName(), dataFont));
             table.addCell(new Phrase(t.getDescription(), dataFont));
             table.addCell(new Phrase(t.getType().toString(), dataFont));
-            table.addCell(new Phrase(String.format("₹%.2f", t.getAmount()), dataFont));
+            table.addCell(new Phrase(t.getFormattedAmount(), dataFont));
             
             if (t.getType() == TransactionType.INCOME) {
-                totalIncome += t.getAmount();
+                totalIncome += t.getAmountInPaise();
             } else {
-                totalExpense += t.getAmount();
+                totalExpense += t.getAmountInPaise();
             }
         }
         
@@ -1106,9 +1077,9 @@ public class ReportsView {
         document.add(new Paragraph(" "));
         Font summaryFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
         document.add(new Paragraph("Summary:", summaryFont));
-        document.add(new Paragraph("Total Income: ₹" + String.format("%.2f", totalIncome)));
-        document.add(new Paragraph("Total Expense: ₹" + String.format("%.2f", totalExpense)));
-        document.add(new Paragraph("Net Balance: ₹" + String.format("%.2f", (totalIncome - totalExpense))));
+        document.add(new Paragraph("Total Income: " + Money.format(totalIncome)));
+        document.add(new Paragraph("Total Expense: " + Money.format(totalExpense)));
+        document.add(new Paragraph("Net Balance: " + Money.format(totalIncome - totalExpense)));
     }
     
     private void generateMonthlyReportPDF(Document document) throws DocumentException {
@@ -1119,29 +1090,24 @@ public class ReportsView {
         
         LocalDate startDate = currentMonth.atDay(1);
         LocalDate endDate = currentMonth.atEndOfMonth();
-        List<Transaction> transactions = dataManager.getTransactionsByDateRange(startDate, endDate);
+        int transactionCount = dataManager.getTransactionCount(startDate, endDate);
         
-        if (transactions.isEmpty()) {
+        if (transactionCount == 0) {
             document.add(new Paragraph("No transactions for this month."));
             return;
         }
         
-        double totalIncome = transactions.stream()
-            .filter(t -> t.getType() == TransactionType.INCOME)
-            .mapToDouble(Transaction::getAmount).sum();
-        
-        double totalExpense = transactions.stream()
-            .filter(t -> t.getType() == TransactionType.EXPENSE)
-            .mapToDouble(Transaction::getAmount).sum();
+        long totalIncome = dataManager.getTotal(TransactionType.INCOME, startDate, endDate);
+        long totalExpense = dataManager.getTotal(TransactionType.EXPENSE, startDate, endDate);
         
         // Summary
         Font summaryFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
         document.add(new Paragraph("Financial Summary:", summaryFont));
         document.add(new Paragraph(" "));
-        document.add(new Paragraph("Total Income: ₹" + String.format("%.2f", totalIncome)));
-        document.add(new Paragraph("Total Expense: ₹" + String.format("%.2f", totalExpense)));
-        document.add(new Paragraph("Net Savings: ₹" + String.format("%.2f", (totalIncome - totalExpense))));
-        document.add(new Paragraph("Total Transactions: " + transactions.size()));
+        document.add(new Paragraph("Total Income: " + Money.format(totalIncome)));
+        document.add(new Paragraph("Total Expense: " + Money.format(totalExpense)));
+        document.add(new Paragraph("Net Savings: " + Money.format(totalIncome - totalExpense)));
+        document.add(new Paragraph("Total Transactions: " + transactionCount));
     }
     
     private void generateYearlyReportPDF(Document document) throws DocumentException {
@@ -1152,29 +1118,22 @@ public class ReportsView {
         
         LocalDate startDate = LocalDate.of(currentYear, 1, 1);
         LocalDate endDate = LocalDate.of(currentYear, 12, 31);
-        List<Transaction> transactions = dataManager.getTransactionsByDateRange(startDate, endDate);
-        
-        if (transactions.isEmpty()) {
+        if (dataManager.getTransactionCount(startDate, endDate) == 0) {
             document.add(new Paragraph("No transactions for this year."));
             return;
         }
         
-        double totalIncome = transactions.stream()
-            .filter(t -> t.getType() == TransactionType.INCOME)
-            .mapToDouble(Transaction::getAmount).sum();
-        
-        double totalExpense = transactions.stream()
-            .filter(t -> t.getType() == TransactionType.EXPENSE)
-            .mapToDouble(Transaction::getAmount).sum();
+        long totalIncome = dataManager.getTotal(TransactionType.INCOME, startDate, endDate);
+        long totalExpense = dataManager.getTotal(TransactionType.EXPENSE, startDate, endDate);
         
         Font summaryFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
         document.add(new Paragraph("Annual Financial Summary:", summaryFont));
         document.add(new Paragraph(" "));
-        document.add(new Paragraph("Total Income: ₹" + String.format("%.2f", totalIncome)));
-        document.add(new Paragraph("Total Expense: ₹" + String.format("%.2f", totalExpense)));
-        document.add(new Paragraph("Net Savings: ₹" + String.format("%.2f", (totalIncome - totalExpense))));
-        document.add(new Paragraph("Average Monthly Income: ₹" + String.format("%.2f", totalIncome / 12)));
-        document.add(new Paragraph("Average Monthly Expense: ₹" + String.format("%.2f", totalExpense / 12)));
+        document.add(new Paragraph("Total Income: " + Money.format(totalIncome)));
+        document.add(new Paragraph("Total Expense: " + Money.format(totalExpense)));
+        document.add(new Paragraph("Net Savings: " + Money.format(totalIncome - totalExpense)));
+        document.add(new Paragraph("Average Monthly Income: " + Money.format(Math.round(totalIncome / 12.0))));
+        document.add(new Paragraph("Average Monthly Expense: " + Money.format(Math.round(totalExpense / 12.0))));
     }
     
     private void generateCategoryReportPDF(Document document) throws DocumentException {
@@ -1182,24 +1141,19 @@ public class ReportsView {
         document.add(new Paragraph("Category-wise Report", headerFont));
         document.add(new Paragraph(" "));
         
-        List<Transaction> allTransactions = dataManager.getAllTransactions();
-        if (allTransactions.isEmpty()) {
+        if (dataManager.getTransactionCount(LocalDate.MIN, LocalDate.MAX) == 0) {
             document.add(new Paragraph("No transactions available."));
             return;
         }
         
         // Expense by category
-        Map<Category, Double> expenseTotals = new HashMap<>();
-        allTransactions.stream().filter(t -> t.getType() == TransactionType.EXPENSE)
-            .forEach(t -> expenseTotals.merge(t.getCategory(), t.getAmount(), Double::sum));
+        CategoryTotals expenseTotals = exportCategoryTotals(TransactionType.EXPENSE);
         
         if (!expenseTotals.isEmpty()) {
             Font subHeaderFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
             document.add(new Paragraph("Expenses by Category:", subHeaderFont));
             document.add(new Paragraph(" "));
             
-            double totalExpense = expenseTotals.values().stream().mapToDouble(Double::doubleValue).sum();
-            
             PdfPTable table = new PdfPTable(3);
             table.setWidthPercentage(80);
             table.setSpacingBefore(10f);
@@ -1220,14 +1174,11 @@ public class ReportsView {
             
             // Data
             Font dataFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
-            expenseTotals.entrySet().stream()
-                .sorted((e1, e2) -> Double.compare(e2.getValue(), e1.getValue()))
-                .forEach(entry -> {
-                    double percentage = (entry.getValue() / totalExpense) * 100;
-                    table.addCell(new Phrase(entry.getKey().getEmoji() + " " + entry.getKey().getDisplayName(), dataFont));
-                    table.addCell(new Phrase(String.format("₹%.2f", entry.getValue()), dataFont));
-                    table.addCell(new Phrase(String.format("%.1f%%", percentage), dataFont));
-                });
+            for (Category category : expenseTotals.byAmountDescending()) {
+                table.addCell(new Phrase(category.getEmoji() + " " + category.getDisplayName(), dataFont));
+                table.addCell(new Phrase(Money.format(expenseTotals.get(category)), dataFont));
+                table.addCell(new Phrase(String.format("%.1f%%", expenseTotals.getPercentage(category)), dataFont));
+            }
             
             document.add(table);
         }
@@ -1243,21 +1194,14 @@ public class ReportsView {
         // Last 30 days summary
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(29);
-        List<Transaction> transactions = dataManager.getTransactionsByDateRange(startDate, endDate);
-        
-        double totalIncome = transactions.stream()
-            .filter(t -> t.getType() == TransactionType.INCOME)
-            .mapToDouble(Transaction::getAmount).sum();
-        
-        double totalExpense = transactions.stream()
-            .filter(t -> t.getType() == TransactionType.EXPENSE)
-            .mapToDouble(Transaction::getAmount).sum();
+        long totalIncome = dataManager.getTotal(TransactionType.INCOME, startDate, endDate);
+        long totalExpense = dataManager.getTotal(TransactionType.EXPENSE, startDate, endDate);
         
         Font summaryFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
         document.add(new Paragraph("Last 30 Days Summary:", summaryFont));
-        document.add(new Paragraph("Total Income: ₹" + String.format("%.2f", totalIncome)));
-        document.add(new Paragraph("Total Expense: ₹" + String.format("%.2f", totalExpense)));
-        document.add(new Paragraph("Average Daily Spending: ₹" + String.format("%.2f", totalExpense / 30)));
+        document.add(new Paragraph("Total Income: " + Money.format(totalIncome)));
+        document.add(new Paragraph("Total Expense: " + Money.format(totalExpense)));
+        document.add(new Paragraph("Average Daily Spending: " + Money.format(Math.round(totalExpense / 30.0))));
     }
     
     public VBox getView() {
@@ -0,0 +1,101 @@
+package com.expensetracker.ui;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.scene.Node;
+import javafx.util.Duration;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// One app-wide once-a-second tick on the FX thread, shared by every widget that shows the time.
+// The timeline only runs while something listens. Day listeners are told once when the local
+// date changes, so date-based widgets recompute at midnight instead of checking every tick.
+// Subscribing returns the matching unsubscribe action.
+final class UiClock {
+    private static UiClock instance;
+    
+    // Copied on write, so a listener may unsubscribe itself while being called
+    private final List<Consumer<LocalDateTime>> tickListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<LocalDate>> dayListeners = new CopyOnWriteArrayList<>();
+    private final Timeline timeline = new Timeline(new KeyFrame(Duration.seconds(1), e -> tick()));
+    private LocalDate today = LocalDate.now();
+    
+    private UiClock() {
+        timeline.setCycleCount(Animation.INDEFINITE);
+    }
+    
+    // FX thread only, like everything else here
+    static UiClock get() {
+        if (instance == null) {
+            instance = new UiClock();
+        }
+        return instance;
+    }
+    
+    // Called with the current time now and then every second
+    Runnable onTick(Consumer<LocalDateTime> listener) {
+        tickListeners.add(listener);
+        listener.accept(LocalDateTime.now());
+        updateRunning();
+        return () -> {
+            tickListeners.remove(listener);
+            updateRunning();
+        };
+    }
+    
+    // Called with the new date each time the local date changes
+    Runnable onDayChange(Consumer<LocalDate> listener) {
+        dayListeners.add(listener);
+        updateRunning();
+        return () -> {
+            dayListeners.remove(listener);
+            updateRunning();
+        };
+    }
+    
+    // Ticks the listener only while node is part of a scene, so a widget that is swapped out or
+    // thrown away stops costing anything and does not keep its nodes reachable from the clock
+    void onTickWhileShowing(Node node, Consumer<LocalDateTime> listener) {
+        Runnable[] unsubscribe = new Runnable[1];
+        if (node.getScene() != null) {
+            unsubscribe[0] = onTick(listener);
+        }
+        node.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (newScene != null && unsubscribe[0] == null) {
+                unsubscribe[0] = onTick(listener);
+            } else if (newScene == null && unsubscribe[0] != null) {
+                unsubscribe[0].run();
+                unsubscribe[0] = null;
+            }
+        });
+    }
+    
+    private void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Consumer<LocalDateTime> listener : tickListeners) {
+            listener.accept(now);
+        }
+        LocalDate date = now.toLocalDate();
+        if (!date.equals(today)) {
+            today = date;
+            for (Consumer<LocalDate> listener : dayListeners) {
+                listener.accept(date);
+            }
+        }
+    }
+    
+    private void updateRunning() {
+        if (tickListeners.isEmpty() && dayListeners.isEmpty()) {
+            timeline.stop();
+        } else if (timeline.getStatus() != Animation.Status.RUNNING) {
+            // A date change while nobody listened had nobody to tell
+            today = LocalDate.now();
+            timeline.play();
+        }
+    }
+}
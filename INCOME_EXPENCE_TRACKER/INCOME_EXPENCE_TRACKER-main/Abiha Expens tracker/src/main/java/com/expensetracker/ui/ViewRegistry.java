@@ -0,0 +1,40 @@
+package com.expensetracker.ui;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Builds each screen once and keeps it for the rest of the session, so navigating only swaps
+// in an existing node. Screens showing ledger data keep themselves current from change events,
+// and are disposed with the registry so they stop listening.
+final class ViewRegistry {
+    private final Map<Class<?>, Object> screens = new HashMap<>();
+    private final List<Runnable> disposals = new ArrayList<>();
+    
+    // For screens holding no subscriptions, which need nothing when dropped
+    <T> T get(Class<T> type, Supplier<T> factory) {
+        return get(type, factory, null);
+    }
+    
+    <T> T get(Class<T> type, Supplier<T> factory, Consumer<T> dispose) {
+        T screen = type.cast(screens.get(type));
+        if (screen == null) {
+            screen = factory.get();
+            screens.put(type, screen);
+            if (dispose != null) {
+                T built = screen;
+                disposals.add(() -> dispose.accept(built));
+            }
+        }
+        return screen;
+    }
+    
+    void dispose() {
+        disposals.forEach(Runnable::run);
+        disposals.clear();
+        screens.clear();
+    }
+}
@@ -0,0 +1,60 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Both backends treat an add over an existing id as a replacement, in a batch or on its own
+class AddReplacesExistingTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    void inMemoryLedger() {
+        DataManager ledger = new DataManager(dir);
+        try {
+            checkReplaces(ledger);
+        } finally {
+            ledger.close();
+        }
+    }
+    
+    @Test
+    void sqlLedger() throws SQLException {
+        SqlTransactionRepository ledger = new SqlTransactionRepository("jdbc:h2:mem:add-replaces");
+        try {
+            checkReplaces(ledger);
+        } finally {
+            ledger.close();
+        }
+    }
+    
+    private static void checkReplaces(TransactionRepository ledger) {
+        ledger.addTransaction(row("a", 100));
+        ledger.addTransactions(Arrays.asList(row("a", 250), row("b", 50)));
+        ledger.addTransaction(row("b", 75));
+        
+        List<Transaction> rows = ledger.getAllTransactions();
+        assertEquals(2, rows.size());
+        assertEquals(325, ledger.getTotalExpense());
+        assertEquals(325, ledger.getTotal(TransactionType.EXPENSE, DAY, DAY));
+    }
+    
+    private static Transaction row(String id, long paise) {
+        Transaction transaction = new Transaction(id, TransactionType.EXPENSE, Category.GROCERIES, 0, "row " + id, DAY);
+        transaction.setAmountInPaise(paise);
+        return transaction;
+    }
+}
@@ -0,0 +1,54 @@
+package com.expensetracker.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class AtomicFilesTest {
+    @TempDir
+    Path dir;
+    
+    @Test
+    void previousGenerationBecomesTheBackup() throws IOException {
+        Path target = dir.resolve("transactions.json");
+        Path backup = dir.resolve("transactions.json.bak");
+        write(target, backup, "first");
+        write(target, backup, "second");
+        write(target, backup, "third");
+        
+        assertEquals("third", Files.readString(target));
+        assertEquals("second", Files.readString(backup));
+        assertFalse(Files.exists(dir.resolve("transactions.json.tmp")));
+    }
+    
+    @Test
+    void failedWriteLeavesBothGenerationsAlone() throws IOException {
+        Path target = dir.resolve("transactions.json");
+        Path backup = dir.resolve("transactions.json.bak");
+        write(target, backup, "first");
+        write(target, backup, "second");
+        try {
+            AtomicFiles.write(target, backup, channel -> {
+                throw new IOException("disk full");
+            });
+        } catch (IOException expected) {
+            // the write is reported; the files are checked below
+        }
+        
+        assertEquals("second", Files.readString(target));
+        assertEquals("first", Files.readString(backup));
+    }
+    
+    private static void write(Path target, Path backup, String content) throws IOException {
+        AtomicFiles.write(target, backup,
+                channel -> channel.write(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8))));
+    }
+}
@@ -0,0 +1,94 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Adding a block of rows with one addTransactions call against one addTransaction call per
+// row, each into an empty file-backed ledger and timed until the rows are durable
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BatchBenchmark {
+    @Param({"memory", "h2"})
+    String backend;
+    
+    @Param({"10000"})
+    int rows;
+    
+    private List<Transaction> batch;
+    private TransactionRepository repository;
+    private Path dataDir;
+    
+    @Setup(Level.Trial)
+    public void createRows() {
+        batch = new ArrayList<>(rows);
+        Category[] categories = Category.values();
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            Transaction transaction = new Transaction(TransactionType.EXPENSE, categories[i % categories.length],
+                    0, "Imported " + (i % 100), start.plusDays(i % 1000));
+            transaction.setAmountInPaise(100 + i);
+            batch.add(transaction);
+        }
+    }
+    
+    @Setup(Level.Invocation)
+    public void openEmptyLedger() throws IOException, SQLException {
+        dataDir = Files.createTempDirectory("ledger");
+        repository = "h2".equals(backend)
+                ? new SqlTransactionRepository("jdbc:h2:file:" + dataDir.resolve("transactions"))
+                : new DataManager(dataDir);
+    }
+    
+    @TearDown(Level.Invocation)
+    public void closeLedger() throws IOException {
+        repository.close();
+        try (Stream<Path> files = Files.walk(dataDir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+    
+    @Benchmark
+    public void addTransactions() {
+        repository.addTransactions(batch);
+        repository.flush();
+    }
+    
+    @Benchmark
+    public void addTransactionPerRow() {
+        for (Transaction transaction : batch) {
+            repository.addTransaction(transaction);
+        }
+        repository.flush();
+    }
+}
@@ -0,0 +1,140 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.CategoryTotals;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarLedgerTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 10);
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    void rowsAndDescriptionsRoundTripInDateOrder() throws IOException {
+        ColumnarLedger.write(dir, Arrays.asList(
+                row("c", TransactionType.EXPENSE, Category.GROCERIES, 300, "Weekly shop ₹", DAY.plusDays(1)),
+                row("a", TransactionType.INCOME, Category.SALARY, 5000, "Salary", DAY.minusDays(1)),
+                row("b", TransactionType.EXPENSE, Category.TRANSPORTATION, 125, null, DAY)));
+        ColumnarLedger ledger = ColumnarLedger.open(dir);
+        
+        assertEquals(3, ledger.size());
+        assertEquals(DAY.minusDays(1), ledger.getDate(0));
+        assertEquals(TransactionType.INCOME, ledger.getType(0));
+        assertEquals(Category.SALARY, ledger.getCategory(0));
+        assertEquals(5000, ledger.getAmountInPaise(0));
+        assertEquals("Salary", ledger.getDescription(0));
+        assertEquals("", ledger.getDescription(1));
+        assertEquals("Weekly shop ₹", ledger.getDescription(2));
+        assertEquals(Category.GROCERIES, ledger.getCategory(2));
+    }
+    
+    // Ranges start at the first row of their first day, however many rows the day before has
+    @Test
+    void rangesStartingInsideTheLedgerCountWholeDays() throws IOException {
+        ColumnarLedger.write(dir, Arrays.asList(
+                row("a", TransactionType.EXPENSE, Category.GROCERIES, 100, "before", DAY.minusDays(1)),
+                row("b", TransactionType.EXPENSE, Category.GROCERIES, 200, "before", DAY.minusDays(1)),
+                row("c", TransactionType.EXPENSE, Category.GROCERIES, 400, "first", DAY),
+                row("d", TransactionType.EXPENSE, Category.TRANSPORTATION, 800, "second", DAY),
+                row("e", TransactionType.INCOME, Category.SALARY, 1600, "pay", DAY),
+                row("f", TransactionType.EXPENSE, Category.GROCERIES, 3200, "after", DAY.plusDays(2))));
+        ColumnarLedger ledger = ColumnarLedger.open(dir);
+        
+        assertEquals(1200, ledger.sum(TransactionType.EXPENSE, DAY, DAY.plusDays(1)));
+        assertEquals(4400, ledger.sum(TransactionType.EXPENSE, DAY, DAY.plusDays(2)));
+        assertEquals(0, ledger.sum(TransactionType.EXPENSE, DAY.plusDays(1), DAY.plusDays(1)));
+        assertEquals(1600, ledger.sum(TransactionType.INCOME, LocalDate.MIN, LocalDate.MAX));
+        
+        CategoryTotals totals = ledger.sumByCategory(TransactionType.EXPENSE, DAY, DAY);
+        assertEquals(400, totals.get(Category.GROCERIES));
+        assertEquals(800, totals.get(Category.TRANSPORTATION));
+        assertEquals(1, totals.getCount(Category.GROCERIES));
+    }
+    
+    @Test
+    void emptyLedgerRoundTrips() throws IOException {
+        ColumnarLedger.write(dir, Collections.emptyList());
+        ColumnarLedger ledger = ColumnarLedger.open(dir);
+        
+        assertEquals(0, ledger.size());
+        assertEquals(0, ledger.sum(TransactionType.EXPENSE, LocalDate.MIN, LocalDate.MAX));
+        assertTrue(ledger.sumByCategory(TransactionType.EXPENSE, LocalDate.MIN, LocalDate.MAX).isEmpty());
+    }
+    
+    @Test
+    void truncatedFilesAreRejectedOnOpen() throws IOException {
+        List<Transaction> rows = Arrays.asList(
+                row("a", TransactionType.EXPENSE, Category.GROCERIES, 100, "one", DAY),
+                row("b", TransactionType.EXPENSE, Category.GROCERIES, 200, "two", DAY));
+        ColumnarLedger.write(dir, rows);
+        truncate(dir.resolve(ColumnarLedger.COLUMNS_FILE), 1);
+        assertThrows(IOException.class, () -> ColumnarLedger.open(dir));
+        
+        ColumnarLedger.write(dir, rows);
+        truncate(dir.resolve(ColumnarLedger.DESCRIPTIONS_FILE), 1);
+        assertThrows(IOException.class, () -> ColumnarLedger.open(dir));
+    }
+    
+    // The file ledger's columnar copy agrees with its rollups, and follows later changes
+    @Test
+    void dataManagerCopyMatchesItsTotals() throws IOException {
+        DataManager ledger = new DataManager(dir);
+        try {
+            ledger.addTransactions(Arrays.asList(
+                    row("a", TransactionType.EXPENSE, Category.GROCERIES, 100, "one", DAY),
+                    row("b", TransactionType.EXPENSE, Category.TRANSPORTATION, 250, "two", DAY.plusDays(3))));
+            checkMatches(ledger);
+            
+            ledger.deleteTransaction("a");
+            ledger.addTransaction(row("c", TransactionType.INCOME, Category.SALARY, 900, "three", DAY));
+            checkMatches(ledger);
+        } finally {
+            ledger.close();
+        }
+    }
+    
+    private static void checkMatches(DataManager ledger) throws IOException {
+        ColumnarLedger columns = ledger.openColumnarLedger();
+        assertEquals(ledger.getAllTransactions().size(), columns.size());
+        for (TransactionType type : TransactionType.values()) {
+            assertEquals(ledger.getTotal(type, LocalDate.MIN, LocalDate.MAX),
+                    columns.sum(type, LocalDate.MIN, LocalDate.MAX));
+            CategoryTotals expected = ledger.getCategoryTotals(type, DAY, DAY.plusDays(3));
+            CategoryTotals actual = columns.sumByCategory(type, DAY, DAY.plusDays(3));
+            for (Category category : Category.values()) {
+                assertEquals(expected.get(category), actual.get(category));
+                assertEquals(expected.getCount(category), actual.getCount(category));
+            }
+        }
+    }
+    
+    private static void truncate(Path file, int bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - bytes);
+        }
+    }
+    
+    private static Transaction row(String id, TransactionType type, Category category, long paise,
+            String description, LocalDate date) {
+        Transaction transaction = new Transaction(id, type, category, 0, description, date);
+        transaction.setAmountInPaise(paise);
+        return transaction;
+    }
+}
@@ -0,0 +1,156 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Writers only ever add or delete a matching income and expense pair in one batch, so every
+// state a reader can see has a zero balance and an even row count. Each batch is one version,
+// so readers that see the same version must see the same rows.
+class DataManagerConcurrencyTest {
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int BATCHES_PER_WRITER = 400;
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    void readersOnlySeeWholeBatches() throws InterruptedException {
+        DataManager ledger = new DataManager(dir);
+        try {
+            long startVersion = ledger.getVersion();
+            Queue<String> failures = new ConcurrentLinkedQueue<>();
+            Map<Long, Integer> sizeByVersion = new ConcurrentHashMap<>();
+            AtomicBoolean writing = new AtomicBoolean(true);
+            CountDownLatch start = new CountDownLatch(1);
+            int[] rowsLeft = new int[WRITERS];
+            
+            List<Thread> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                writers.add(new Thread(() -> {
+                    Random random = new Random(writer);
+                    List<Transaction[]> pairs = new ArrayList<>();
+                    await(start);
+                    for (int i = 0; i < BATCHES_PER_WRITER; i++) {
+                        if (!pairs.isEmpty() && random.nextInt(4) == 0) {
+                            Transaction[] pair = pairs.remove(random.nextInt(pairs.size()));
+                            ledger.deleteTransactions(Arrays.asList(pair[0].getId(), pair[1].getId()));
+                        } else {
+                            long paise = 1 + random.nextInt(1_000_000);
+                            LocalDate date = LocalDate.of(2024, 1, 1).plusDays(random.nextInt(366));
+                            Transaction[] pair = {
+                                    row(TransactionType.INCOME, Category.SALARY, paise, date),
+                                    row(TransactionType.EXPENSE, Category.GROCERIES, paise, date)};
+                            ledger.addTransactions(Arrays.asList(pair));
+                            pairs.add(pair);
+                        }
+                    }
+                    rowsLeft[writer] = pairs.size() * 2;
+                }, "writer-" + w));
+            }
+            
+            List<Thread> readers = new ArrayList<>();
+            for (int r = 0; r < READERS; r++) {
+                readers.add(new Thread(() -> {
+                    await(start);
+                    long lastVersion = -1;
+                    while (writing.get()) {
+                        LedgerSnapshot snapshot = (LedgerSnapshot) ledger.getAllTransactions();
+                        if (snapshot.getVersion() < lastVersion) {
+                            failures.add("version went back from " + lastVersion + " to " + snapshot.getVersion());
+                        }
+                        lastVersion = snapshot.getVersion();
+                        checkSnapshot(snapshot, sizeByVersion, failures);
+                        
+                        long balance = ledger.getBalance();
+                        if (balance != 0) {
+                            failures.add("balance " + balance);
+                        }
+                        long income = ledger.getTotal(TransactionType.INCOME, LocalDate.MIN, LocalDate.MAX);
+                        long expense = ledger.getTotal(TransactionType.EXPENSE, LocalDate.MIN, LocalDate.MAX);
+                        if (income != expense && ledger.getVersion() == lastVersion) {
+                            failures.add("rollup income " + income + " against expense " + expense);
+                        }
+                        int count = ledger.getTransactionCount(LocalDate.MIN, LocalDate.MAX);
+                        if (count % 2 != 0) {
+                            failures.add("odd row count " + count);
+                        }
+                    }
+                }, "reader-" + r));
+            }
+            
+            readers.forEach(Thread::start);
+            writers.forEach(Thread::start);
+            start.countDown();
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            writing.set(false);
+            for (Thread reader : readers) {
+                reader.join();
+            }
+            
+            assertTrue(failures.isEmpty(), () -> failures.size() + " failures, first: " + failures.peek());
+            int expectedRows = Arrays.stream(rowsLeft).sum();
+            assertEquals(startVersion + (long) WRITERS * BATCHES_PER_WRITER, ledger.getVersion());
+            assertEquals(expectedRows, ledger.getAllTransactions().size());
+            assertEquals(expectedRows, ledger.getTransactionCount(LocalDate.MIN, LocalDate.MAX));
+            assertEquals(0, ledger.getBalance());
+        } finally {
+            ledger.close();
+        }
+    }
+    
+    private static void checkSnapshot(LedgerSnapshot snapshot, Map<Long, Integer> sizeByVersion, Queue<String> failures) {
+        Integer seen = sizeByVersion.putIfAbsent(snapshot.getVersion(), snapshot.size());
+        if (seen != null && seen != snapshot.size()) {
+            failures.add("version " + snapshot.getVersion() + " had " + seen + " rows and then " + snapshot.size());
+        }
+        long income = 0;
+        long expense = 0;
+        for (Transaction t : snapshot) {
+            if (t.getType() == TransactionType.INCOME) {
+                income += t.getAmountInPaise();
+            } else {
+                expense += t.getAmountInPaise();
+            }
+        }
+        if (snapshot.size() % 2 != 0 || income != expense) {
+            failures.add("torn snapshot at version " + snapshot.getVersion() + ": " + snapshot.size() + " rows");
+        }
+    }
+    
+    private static Transaction row(TransactionType type, Category category, long paise, LocalDate date) {
+        Transaction transaction = new Transaction(type, category, 0, "pair", date);
+        transaction.setAmountInPaise(paise);
+        return transaction;
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
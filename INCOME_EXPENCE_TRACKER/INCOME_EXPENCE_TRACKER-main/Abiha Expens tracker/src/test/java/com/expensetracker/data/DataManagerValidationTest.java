@@ -0,0 +1,73 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// A batch holding one unusable row is rejected whole, before the map or any index sees it
+class DataManagerValidationTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    void batchWithUndatedRowChangesNothing() {
+        DataManager ledger = new DataManager(dir);
+        try {
+            ledger.addTransaction(row("kept", DAY));
+            long version = ledger.getVersion();
+            
+            assertThrows(IllegalArgumentException.class,
+                    () -> ledger.addTransactions(Arrays.asList(row("good", DAY), row("undated", null))));
+            
+            assertEquals(version, ledger.getVersion());
+            assertEquals(1, ledger.getAllTransactions().size());
+            assertEquals(1, ledger.getTransactionCount(LocalDate.MIN, LocalDate.MAX));
+            assertEquals(100, ledger.getTotalExpense());
+            assertEquals(1, ledger.search("row").size());
+        } finally {
+            ledger.close();
+        }
+    }
+    
+    // The ledger keeps its own copy, so editing the instance passed in changes nothing stored
+    @Test
+    void callerEditsDoNotReachStoredRows() {
+        DataManager ledger = new DataManager(dir);
+        try {
+            Transaction added = row("a", DAY);
+            ledger.addTransaction(added);
+            added.setAmountInPaise(999);
+            added.setDescription("changed");
+            
+            Transaction updated = row("a", DAY);
+            updated.setDescription("updated");
+            ledger.updateTransaction(updated);
+            updated.setAmountInPaise(555);
+            
+            Transaction stored = ledger.getAllTransactions().get(0);
+            assertEquals(100, stored.getAmountInPaise());
+            assertEquals("updated", stored.getDescription());
+            assertEquals(100, ledger.getTotalExpense());
+            assertEquals(0, ledger.search("changed").size());
+        } finally {
+            ledger.close();
+        }
+    }
+    
+    private static Transaction row(String id, LocalDate date) {
+        Transaction transaction = new Transaction(id, TransactionType.EXPENSE, Category.GROCERIES, 0, "row " + id, date);
+        transaction.setAmountInPaise(100);
+        return transaction;
+    }
+}
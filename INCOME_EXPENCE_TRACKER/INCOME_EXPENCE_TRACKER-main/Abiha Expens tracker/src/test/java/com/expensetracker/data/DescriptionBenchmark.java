@@ -0,0 +1,101 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Loading a JSON snapshot whose 100k rows repeat 500 descriptions, keeping each loaded
+// ledger live until the next one replaces it, as the application does. Compares rows
+// keeping the strings the reader created, sharing them through a DescriptionPool, and
+// interning them in the JVM string table. Run with -prof gc for the bytes allocated per
+// load and the collections they cause; the bytes the loaded ledger retains are printed at
+// the end of each trial.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx512m"})
+public class DescriptionBenchmark {
+    @Param({"100000"})
+    int rows;
+    
+    @Param({"none", "pool", "intern"})
+    String sharing;
+    
+    private final TransactionAdapter adapter = new TransactionAdapter();
+    private Path snapshot;
+    // The previous load, kept reachable so each load runs against a full live ledger
+    private List<Transaction> ledger;
+    
+    @Setup(Level.Trial)
+    public void writeSnapshot() throws IOException {
+        snapshot = Files.createTempFile("transactions", ".json");
+        Category[] categories = Category.values();
+        LocalDate start = LocalDate.of(2015, 1, 1);
+        try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(snapshot, StandardCharsets.UTF_8))) {
+            writer.beginArray();
+            for (int i = 0; i < rows; i++) {
+                Transaction transaction = new Transaction(TransactionType.EXPENSE, categories[i % categories.length],
+                        0, "Monthly payment " + (i % 500), start.plusDays(i % 3650));
+                transaction.setAmountInPaise(100 + i);
+                adapter.write(writer, transaction);
+            }
+            writer.endArray();
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void report() throws IOException {
+        System.out.println();
+        System.out.println("Retained by the loaded ledger (" + sharing + "): "
+                + GraphLayout.parseInstance(ledger).totalSize() / rows + " bytes per row");
+        Files.deleteIfExists(snapshot);
+    }
+    
+    @Benchmark
+    public List<Transaction> load() throws IOException {
+        DescriptionPool pool = new DescriptionPool(DescriptionPool.DEFAULT_MAX_ENTRIES);
+        List<Transaction> loaded = new ArrayList<>(rows);
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(snapshot, StandardCharsets.UTF_8))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                Transaction transaction = adapter.read(reader);
+                if ("pool".equals(sharing)) {
+                    transaction.setDescription(pool.share(transaction.getDescription()));
+                } else if ("intern".equals(sharing)) {
+                    transaction.setDescription(transaction.getDescription().intern());
+                }
+                loaded.add(transaction);
+            }
+            reader.endArray();
+        }
+        ledger = loaded;
+        return loaded;
+    }
+}
@@ -0,0 +1,88 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class DescriptionPoolTest {
+    @TempDir
+    Path dir;
+    
+    @Test
+    void equalTextsShareOneString() {
+        DescriptionPool pool = new DescriptionPool(10);
+        String first = pool.share(new String("Salary"));
+        assertSame(first, pool.share(new String("Salary")));
+        assertNull(pool.share(null));
+    }
+    
+    @Test
+    void poolNeverHoldsMoreThanItsBound() {
+        DescriptionPool pool = new DescriptionPool(100);
+        for (int i = 0; i < 1000; i++) {
+            pool.share("note " + i);
+        }
+        assertEquals(100, pool.size());
+    }
+    
+    // Recently seen texts are kept over older ones once the pool is full
+    @Test
+    void leastRecentlySeenTextIsForgottenFirst() {
+        DescriptionPool pool = new DescriptionPool(2);
+        String rent = pool.share(new String("Rent"));
+        pool.share("Fuel");
+        pool.share(new String("Rent"));
+        pool.share("Lunch");
+        assertSame(rent, pool.share(new String("Rent")));
+    }
+    
+    @Test
+    void ledgerRowsShareEqualDescriptions() {
+        DataManager ledger = new DataManager(dir);
+        try {
+            ledger.addTransactions(Arrays.asList(row("a"), row("b")));
+            ledger.addTransaction(row("c"));
+            
+            List<Transaction> rows = ledger.getAllTransactions();
+            assertSame(rows.get(0).getDescription(), rows.get(1).getDescription());
+            assertSame(rows.get(0).getDescription(), rows.get(2).getDescription());
+        } finally {
+            ledger.close();
+        }
+    }
+    
+    @Test
+    void loadedRowsShareEqualDescriptions() {
+        DataManager ledger = new DataManager(dir);
+        try {
+            ledger.addTransactions(Arrays.asList(row("a"), row("b")));
+        } finally {
+            ledger.close();
+        }
+        
+        DataManager reopened = new DataManager(dir);
+        try {
+            List<Transaction> rows = reopened.getAllTransactions();
+            assertEquals(2, rows.size());
+            assertSame(rows.get(0).getDescription(), rows.get(1).getDescription());
+        } finally {
+            reopened.close();
+        }
+    }
+    
+    private static Transaction row(String id) {
+        return new Transaction(id, TransactionType.INCOME, Category.SALARY, 100, new String("Salary"),
+                LocalDate.of(2024, 3, 1));
+    }
+}
@@ -0,0 +1,96 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Loading a JSON snapshot token by token through TransactionAdapter, against parsing the whole
+// document into a JsonElement tree first and binding each element from it, as the reflective
+// loader did. Run with -prof gc to compare the bytes allocated per load as well.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoadBenchmark {
+    @Param({"100000"})
+    int rows;
+    
+    private final TransactionAdapter adapter = new TransactionAdapter();
+    private Path snapshot;
+    
+    @Setup(Level.Trial)
+    public void writeSnapshot() throws IOException {
+        snapshot = Files.createTempFile("transactions", ".json");
+        Category[] categories = Category.values();
+        LocalDate start = LocalDate.of(2015, 1, 1);
+        try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(snapshot, StandardCharsets.UTF_8))) {
+            writer.setIndent("  ");
+            writer.beginArray();
+            for (int i = 0; i < rows; i++) {
+                Transaction transaction = new Transaction(TransactionType.EXPENSE, categories[i % categories.length],
+                        0, "Row " + (i % 500), start.plusDays(i % 3650));
+                transaction.setAmountInPaise(100 + i);
+                adapter.write(writer, transaction);
+            }
+            writer.endArray();
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void deleteSnapshot() throws IOException {
+        Files.deleteIfExists(snapshot);
+    }
+    
+    @Benchmark
+    public List<Transaction> streaming() throws IOException {
+        List<Transaction> loaded = new ArrayList<>();
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(snapshot, StandardCharsets.UTF_8))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                loaded.add(adapter.read(reader));
+            }
+            reader.endArray();
+        }
+        return loaded;
+    }
+    
+    @Benchmark
+    public List<Transaction> tree() throws IOException {
+        List<Transaction> loaded = new ArrayList<>();
+        try (Reader reader = Files.newBufferedReader(snapshot, StandardCharsets.UTF_8)) {
+            for (JsonElement element : JsonParser.parseReader(reader).getAsJsonArray()) {
+                loaded.add(adapter.fromJsonTree(element));
+            }
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,106 @@
+package com.expensetracker.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PersistenceWorkerTest {
+    @Test
+    void flushFailsWhileRecordsAreUnsaved() {
+        FakeSink sink = new FakeSink();
+        sink.failWrites = true;
+        PersistenceWorker worker = new PersistenceWorker(sink, 0, 10);
+        worker.submitAll(List.of("a"));
+        assertThrows(UncheckedIOException.class, worker::flush);
+        
+        // Still unsaved until the owner's fallback succeeds, even after a clean batch
+        sink.failWrites = false;
+        worker.submitAll(List.of("b"));
+        assertThrows(UncheckedIOException.class, worker::flush);
+        
+        sink.fallbackSaves = true;
+        worker.submitAll(List.of("c"));
+        worker.flush();
+        worker.close();
+    }
+    
+    @Test
+    void flushSucceedsWhenTheFallbackSaves() {
+        FakeSink sink = new FakeSink();
+        sink.failWrites = true;
+        sink.fallbackSaves = true;
+        PersistenceWorker worker = new PersistenceWorker(sink, 0, 10);
+        worker.submitAll(List.of("a"));
+        worker.flush();
+        worker.close();
+        assertEquals(1, sink.fallbacks);
+    }
+    
+    @Test
+    void runtimeFailuresAreReportedToo() {
+        FakeSink sink = new FakeSink();
+        sink.throwRuntime = true;
+        PersistenceWorker worker = new PersistenceWorker(sink, 0, 10);
+        worker.submitAll(List.of("a"));
+        assertThrows(UncheckedIOException.class, worker::flush);
+        worker.close();
+    }
+    
+    @Test
+    void flushAfterCloseReturns() {
+        FakeSink sink = new FakeSink();
+        PersistenceWorker worker = new PersistenceWorker(sink, 0, 10);
+        worker.submitAll(List.of("a"));
+        worker.close();
+        worker.flush();
+        assertEquals(List.of("a"), sink.written);
+    }
+    
+    @Test
+    void flushRacingCloseReturns() throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            PersistenceWorker worker = new PersistenceWorker(new FakeSink(), 0, 10);
+            Thread flusher = new Thread(worker::flush);
+            flusher.start();
+            worker.close();
+            flusher.join(5000);
+            assertFalse(flusher.isAlive());
+        }
+    }
+    
+    private static final class FakeSink implements PersistenceWorker.Sink {
+        final List<String> written = new ArrayList<>();
+        volatile boolean failWrites;
+        volatile boolean throwRuntime;
+        volatile boolean fallbackSaves;
+        int fallbacks;
+        
+        @Override
+        public void write(List<String> records) throws IOException {
+            if (failWrites) {
+                throw new IOException("disk full");
+            }
+            if (throwRuntime) {
+                throw new IllegalStateException("bad record");
+            }
+            written.addAll(records);
+        }
+        
+        @Override
+        public void afterWrite() {
+        }
+        
+        @Override
+        public boolean writeFailed(IOException e) {
+            fallbacks++;
+            return fallbackSaves;
+        }
+    }
+}
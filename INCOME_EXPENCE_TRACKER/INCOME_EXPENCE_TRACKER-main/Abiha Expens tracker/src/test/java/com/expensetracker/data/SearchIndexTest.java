@@ -0,0 +1,81 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchIndexTest {
+    private final SearchIndex index = new SearchIndex();
+    private final Transaction groceries = row("a", Category.GROCERIES, 125_000, "Weekly shop");
+    private final Transaction salary = row("b", Category.SALARY, 5_000_000, "March pay");
+    
+    SearchIndexTest() {
+        index.put(groceries);
+        index.put(salary);
+    }
+    
+    @Test
+    void wordStartsAreMatchedThroughThePostings() {
+        assertEquals(List.of(groceries), search("groc"));
+        assertEquals(List.of(salary), search("mar pay"));
+    }
+    
+    @Test
+    void wordsInsideOtherWordsAreMatchedToo() {
+        assertEquals(List.of(groceries), search("ocer"));
+        assertEquals(List.of(salary), search("arch"));
+    }
+    
+    @Test
+    void wordStartAndInnerMatchesAreFoundTogether() {
+        Transaction archive = row("c", Category.SHOPPING, 9_900, "Archive boxes");
+        index.put(archive);
+        // "archive" starts with the query, "march" only contains it; both match, in ledger order
+        assertEquals(List.of(salary, archive), search("arch"));
+        // The result does not depend on whether some other row happens to start with the query
+        index.remove(archive.getTransactionId());
+        assertEquals(List.of(salary), search("arch"));
+    }
+    
+    @Test
+    void removedWordsAreNoLongerFound() {
+        index.remove(groceries.getTransactionId());
+        assertEquals(List.of(), search("ocer"));
+        assertEquals(List.of(salary), search("50000"));
+    }
+    
+    @Test
+    void groupedAmountsMatchTheAmount() {
+        assertEquals(List.of(groceries), search("1,250"));
+        assertEquals(List.of(groceries), search("₹1,250.00"));
+        assertEquals(List.of(salary), search("50,000"));
+    }
+    
+    @Test
+    void numbersMatchOnlyFromTheirStart() {
+        assertEquals(List.of(salary), search("5000"));
+        assertEquals(List.of(), search("0000"));
+    }
+    
+    @Test
+    void nothingMatchesWhenNoWordContainsTheQuery() {
+        assertEquals(List.of(), search("rent"));
+    }
+    
+    private List<Transaction> search(String query) {
+        return index.search(SearchIndex.tokenize(query));
+    }
+    
+    private static Transaction row(String id, Category category, long paise, String description) {
+        TransactionType type = category == Category.SALARY ? TransactionType.INCOME : TransactionType.EXPENSE;
+        Transaction transaction = new Transaction(id, type, category, 0, description, LocalDate.of(2024, 3, 1));
+        transaction.setAmountInPaise(paise);
+        return transaction;
+    }
+}
@@ -0,0 +1,65 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The in-memory index and the H2 backend answer every query with the same rows in the same order
+class SearchParityTest {
+    private static final String[] QUERIES = {
+            "groc", "ocer", "GROCERIES", "arch", "march pay", "shop", "1250", "1,250", "₹1,250.00",
+            "250", "50000", "0000", "12", "b12", "rent", "no such word", "e"};
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    void backendsReturnTheSameRows() throws SQLException {
+        DataManager memory = new DataManager(dir);
+        SqlTransactionRepository sql = new SqlTransactionRepository("jdbc:h2:mem:search-parity");
+        try {
+            for (TransactionRepository ledger : Arrays.asList(memory, sql)) {
+                ledger.addTransactions(Arrays.asList(
+                        row("a", Category.GROCERIES, 125_000, "Weekly shop"),
+                        row("b", Category.SALARY, 5_000_000, "March pay"),
+                        row("c", Category.SHOPPING, 9_900, "Archive boxes, flat b12"),
+                        row("d", Category.RENT, 1_250_050, "Flat 12 rent"),
+                        row("e", Category.GROCERIES, 25_000, "Market")));
+                ledger.updateTransaction(row("c", Category.SHOPPING, 12_500, "Archive boxes, flat b12"));
+                ledger.deleteTransaction("e");
+            }
+            for (String query : QUERIES) {
+                assertEquals(ids(memory.search(query)), ids(sql.search(query)), query);
+            }
+        } finally {
+            memory.close();
+            sql.close();
+        }
+    }
+    
+    private static List<String> ids(List<Transaction> rows) {
+        List<String> ids = new ArrayList<>();
+        for (Transaction row : rows) {
+            ids.add(row.getId());
+        }
+        return ids;
+    }
+    
+    private static Transaction row(String id, Category category, long paise, String description) {
+        TransactionType type = category == Category.SALARY ? TransactionType.INCOME : TransactionType.EXPENSE;
+        Transaction transaction = new Transaction(id, type, category, 0, description, LocalDate.of(2024, 3, 1));
+        transaction.setAmountInPaise(paise);
+        return transaction;
+    }
+}
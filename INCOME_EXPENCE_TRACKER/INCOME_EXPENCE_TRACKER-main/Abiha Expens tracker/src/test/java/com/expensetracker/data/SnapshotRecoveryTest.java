@@ -0,0 +1,50 @@
+package com.expensetracker.data;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SnapshotRecoveryTest {
+    private static final String ROW = "{\"id\": \"%s\", \"type\": \"EXPENSE\", \"category\": \"GROCERIES\", "
+            + "\"amount\": \"12.50\", \"description\": \"Market\", \"date\": \"%s\"}";
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    void impossibleOrMalformedDatesAreParseErrors() {
+        for (String date : List.of("2024-02-30", "2024-13-01", "yesterday")) {
+            JsonReader reader = new JsonReader(new StringReader("\"" + date + "\""));
+            assertThrows(JsonParseException.class, () -> new LocalDateAdapter().read(reader), date);
+        }
+    }
+    
+    @Test
+    void snapshotWithABadDateFallsBackToTheBackup() throws IOException {
+        write(StorageFormat.JSON.getFileName(), String.format(ROW, "current", "2024-02-30"));
+        write(StorageFormat.JSON.getBackupFileName(), String.format(ROW, "previous", "2024-02-28"));
+        
+        DataManager ledger = new DataManager(dir);
+        try {
+            assertEquals(1, ledger.getAllTransactions().size());
+            assertEquals("previous", ledger.getAllTransactions().get(0).getId());
+        } finally {
+            ledger.close();
+        }
+    }
+    
+    private void write(String fileName, String row) throws IOException {
+        Files.write(dir.resolve(fileName), ("[" + row + "]").getBytes(StandardCharsets.UTF_8));
+    }
+}
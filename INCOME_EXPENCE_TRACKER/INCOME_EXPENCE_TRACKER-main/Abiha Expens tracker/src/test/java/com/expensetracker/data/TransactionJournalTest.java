@@ -0,0 +1,140 @@
+package com.expensetracker.data;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.model.TransactionId;
+import com.expensetracker.model.TransactionType;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionJournalTest {
+    @TempDir
+    Path dir;
+    
+    @Test
+    void appendAfterTornRecordSurvivesReopen() throws IOException {
+        Path path = dir.resolve("transactions.journal");
+        TransactionJournal journal = new TransactionJournal(path, gson());
+        Transaction first = expense("first", 100);
+        Transaction second = expense("second", 200);
+        Transaction torn = expense("torn", 300);
+        journal.appendAll(Arrays.asList(encode(journal, first), encode(journal, second), encode(journal, torn)));
+        
+        // A crash halfway through the last record
+        long size = Files.size(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 20);
+        }
+        
+        Map<TransactionId, Transaction> replayed = new LinkedHashMap<>();
+        journal = new TransactionJournal(path, gson());
+        journal.replay(replayed);
+        assertEquals(2, replayed.size());
+        
+        Transaction third = expense("third", 400);
+        journal.appendAll(Collections.singletonList(encode(journal, third)));
+        
+        replayed.clear();
+        new TransactionJournal(path, gson()).replay(replayed);
+        assertEquals(3, replayed.size());
+        assertTrue(replayed.containsKey(first.getTransactionId()));
+        assertTrue(replayed.containsKey(second.getTransactionId()));
+        assertEquals(400, replayed.get(third.getTransactionId()).getAmountInPaise());
+    }
+    
+    @Test
+    void recordWithoutNewlineIsTreatedAsTorn() throws IOException {
+        Path path = dir.resolve("transactions.journal");
+        TransactionJournal journal = new TransactionJournal(path, gson());
+        Transaction kept = expense("kept", 100);
+        journal.appendAll(Arrays.asList(encode(journal, kept), encode(journal, expense("unfinished", 200))));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(path) - 1);
+        }
+        
+        Map<TransactionId, Transaction> replayed = new LinkedHashMap<>();
+        journal.replay(replayed);
+        Transaction next = expense("next", 300);
+        journal.appendAll(Collections.singletonList(encode(journal, next)));
+        
+        replayed.clear();
+        new TransactionJournal(path, gson()).replay(replayed);
+        assertEquals(2, replayed.size());
+        assertTrue(replayed.containsKey(kept.getTransactionId()));
+        assertTrue(replayed.containsKey(next.getTransactionId()));
+    }
+    
+    @Test
+    void corruptRecordInTheMiddleIsSkippedAndTheRestKept() throws IOException {
+        Path path = dir.resolve("transactions.journal");
+        TransactionJournal journal = new TransactionJournal(path, gson());
+        Transaction before = expense("before", 100);
+        Transaction after = expense("after", 200);
+        journal.appendAll(Arrays.asList(encode(journal, before), "{\"op\":\"ADD\",\"transac", encode(journal, after)));
+        long size = Files.size(path);
+        
+        Map<TransactionId, Transaction> replayed = new LinkedHashMap<>();
+        new TransactionJournal(path, gson()).replay(replayed);
+        assertEquals(2, replayed.size());
+        assertTrue(replayed.containsKey(before.getTransactionId()));
+        assertTrue(replayed.containsKey(after.getTransactionId()));
+        // Only a torn tail is ever cut off; complete records after a bad one stay in the file
+        assertEquals(size, Files.size(path));
+    }
+    
+    @Test
+    void wellFormedRecordsWithBadContentAreSkipped() throws IOException {
+        Path path = dir.resolve("transactions.journal");
+        TransactionJournal journal = new TransactionJournal(path, gson());
+        Transaction kept = expense("kept", 100);
+        String badDate = encode(journal, expense("bad date", 200)).replace("2024-01-15", "2024-02-30");
+        journal.appendAll(Arrays.asList(
+                "{\"op\":\"RENAME\",\"id\":\"x\"}",
+                "{\"id\":\"x\"}",
+                "{\"op\":\"DELETE\"}",
+                "[1, 2]",
+                badDate,
+                encode(journal, kept)));
+        
+        Map<TransactionId, Transaction> replayed = new LinkedHashMap<>();
+        journal = new TransactionJournal(path, gson());
+        journal.replay(replayed);
+        assertEquals(1, replayed.size());
+        assertTrue(replayed.containsKey(kept.getTransactionId()));
+        assertEquals(1, journal.size());
+    }
+    
+    private static Gson gson() {
+        return new GsonBuilder()
+                .registerTypeAdapter(Transaction.class, new TransactionAdapter())
+                .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
+                .create();
+    }
+    
+    private static String encode(TransactionJournal journal, Transaction transaction) {
+        return journal.encode(TransactionJournal.Operation.ADD, transaction);
+    }
+    
+    private static Transaction expense(String description, long paise) {
+        Transaction transaction = new Transaction(TransactionType.EXPENSE, Category.GROCERIES, 0, description,
+                LocalDate.of(2024, 1, 15));
+        transaction.setAmountInPaise(paise);
+        return transaction;
+    }
+}
@@ -0,0 +1,63 @@
+package com.expensetracker.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// A per-category breakdown summed into CategoryTotals' long paise arrays, against the
+// Map<Category, Double>.merge(..., Double::sum) the views used before. Run with -prof gc to
+// see the boxed version allocate per row while the primitive one allocates nothing.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AggregationBenchmark {
+    @Param({"100000"})
+    int rows;
+    
+    private Transaction[] ledger;
+    
+    @Setup
+    public void createLedger() {
+        ledger = new Transaction[rows];
+        Category[] categories = Category.values();
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            ledger[i] = new Transaction(TransactionType.EXPENSE, categories[i % categories.length],
+                    (i % 10_000) / 100.0 + 1, "Row", start.plusDays(i % 1000));
+        }
+    }
+    
+    @Benchmark
+    public CategoryTotals paiseTotals() {
+        CategoryTotals totals = new CategoryTotals();
+        for (Transaction t : ledger) {
+            totals.add(t.getCategory(), t.getAmountInPaise());
+        }
+        return totals;
+    }
+    
+    @Benchmark
+    public Map<Category, Double> boxedDoubleMap() {
+        Map<Category, Double> totals = new HashMap<>();
+        for (Transaction t : ledger) {
+            totals.merge(t.getCategory(), t.getAmount(), Double::sum);
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,33 @@
+package com.expensetracker.model;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Guards the compact row layout. A row is the Transaction plus its TransactionId; the
+// description, category and type are shared between rows and amortize to nothing. The
+// ledger shares descriptions through its DescriptionPool; here the rows use the same
+// instances directly.
+class TransactionFootprintTest {
+    private static final int ROWS = 100_000;
+    // About a third of the ~250 bytes a row took with a String id, LocalDate and unshared text
+    private static final long MAX_BYTES_PER_ROW = 80;
+    private static final String[] DESCRIPTIONS = {"Salary", "Groceries", "Rent", "Lunch", "Fuel"};
+    
+    @Test
+    void rowsStayCompact() {
+        Transaction[] rows = new Transaction[ROWS];
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < ROWS; i++) {
+            String description = DESCRIPTIONS[i % DESCRIPTIONS.length];
+            rows[i] = new Transaction(TransactionType.EXPENSE, Category.GROCERIES, i / 100.0, description,
+                    start.plusDays(i % 2000));
+        }
+        
+        long bytesPerRow = GraphLayout.parseInstance((Object) rows).totalSize() / ROWS;
+        assertTrue(bytesPerRow <= MAX_BYTES_PER_ROW, bytesPerRow + " bytes per row");
+    }
+}